@@ -1,17 +1,25 @@
 package squeek.appleskin;
 
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.minecraftforge.fml.event.lifecycle.FMLLoadCompleteEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 import net.minecraftforge.fml.loading.FMLPaths;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import squeek.appleskin.api.AppleSkinApi;
 import squeek.appleskin.client.DebugInfoHandler;
+import squeek.appleskin.client.ExhaustionPredictor;
 import squeek.appleskin.client.HUDOverlayHandler;
+import squeek.appleskin.client.LocalFoodStatsHandler;
 import squeek.appleskin.client.TooltipOverlayHandler;
+import squeek.appleskin.helpers.FoodHelper;
+import squeek.appleskin.helpers.SortedFoodIndex;
 import squeek.appleskin.network.SyncHandler;
 
 @Mod(ModInfo.MODID)
@@ -23,25 +31,76 @@ public class AppleSkin
 	{
 		FMLJavaModLoadingContext.get().getModEventBus().addListener(this::preInit);
 		FMLJavaModLoadingContext.get().getModEventBus().addListener(this::preInitClient);
+		FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onLoadComplete);
+		FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onConfigLoading);
+		FMLJavaModLoadingContext.get().getModEventBus().addListener(this::onConfigReloading);
 		ModLoadingContext.get().registerConfig(
 			net.minecraftforge.fml.config.ModConfig.Type.CLIENT,
 			ModConfig.SPEC
 		);
+		ModLoadingContext.get().registerConfig(
+			net.minecraftforge.fml.config.ModConfig.Type.SERVER,
+			ModConfig.SERVER_SPEC
+		);
+		ModLoadingContext.get().registerConfig(
+			net.minecraftforge.fml.config.ModConfig.Type.COMMON,
+			ModConfig.COMMON_SPEC
+		);
 		ModConfig.init(FMLPaths.CONFIGDIR.get().resolve(ModInfo.MODID + "-client.toml"));
 
 		// Register ourselves for server and other game events we are interested in
 		MinecraftForge.EVENT_BUS.register(this);
 	}
 
+	@SubscribeEvent
+	public void onTagsUpdated(TagsUpdatedEvent event)
+	{
+		FoodHelper.clearFoodProfiles();
+		SortedFoodIndex.INSTANCE.invalidate();
+		if (ModConfig.PRECOMPUTE_FOOD_PROFILES.get())
+			precomputeFoodData();
+	}
+
+	private static void precomputeFoodData()
+	{
+		FoodHelper.precomputeFoodProfiles()
+			.thenRun(SortedFoodIndex.INSTANCE::build)
+			.exceptionally(e -> {
+				Log.warn("Unable to build the food index", e);
+				return null;
+			});
+	}
+
+	private void onConfigLoading(final net.minecraftforge.fml.config.ModConfig.Loading event)
+	{
+		if (event.getConfig().getSpec() == ModConfig.SPEC)
+			ModConfig.updateSnapshot();
+	}
+
+	private void onConfigReloading(final net.minecraftforge.fml.config.ModConfig.Reloading event)
+	{
+		if (event.getConfig().getSpec() == ModConfig.SPEC)
+			ModConfig.updateSnapshot();
+	}
+
+	private void onLoadComplete(final FMLLoadCompleteEvent event)
+	{
+		if (ModConfig.PRECOMPUTE_FOOD_PROFILES.get())
+			precomputeFoodData();
+	}
+
 	private void preInit(final FMLCommonSetupEvent event)
 	{
+		AppleSkinApi.setFoodIndex(SortedFoodIndex.INSTANCE);
 		SyncHandler.init();
 	}
 
 	private void preInitClient(final FMLClientSetupEvent event)
 	{
 		DebugInfoHandler.init();
+		ExhaustionPredictor.init();
 		HUDOverlayHandler.init();
+		LocalFoodStatsHandler.init();
 		TooltipOverlayHandler.init();
 	}
 }
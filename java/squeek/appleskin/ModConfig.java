@@ -18,6 +18,56 @@ public class ModConfig
 
 		configData.load();
 		SPEC.setConfig(configData);
+		updateSnapshot();
+	}
+
+	/*
+	 * The client values are read every frame, so the hot paths read them from a snapshot
+	 * with plain fields instead of going through ForgeConfigSpec each time.
+	 * The snapshot is replaced as a whole whenever the config is (re)loaded, so a reader
+	 * never sees a mix of old and new values.
+	 */
+	public static class Snapshot
+	{
+		public final boolean showFoodValuesInTooltip;
+		public final boolean alwaysShowFoodValuesTooltip;
+		public final boolean showSaturationOverlay;
+		public final boolean showFoodValuesOverlay;
+		public final boolean showFoodValuesOverlayWhenOffhand;
+		public final boolean showFoodExhaustionUnderlay;
+		public final boolean showFoodDebugInfo;
+		public final boolean showFoodHealthHudOverlay;
+		public final boolean showVanillaAnimationOverlay;
+		// already clamped between 0 and 1
+		public final float maxHudOverlayFlashAlpha;
+		public final boolean showRenderTimesInDebugOverlay;
+
+		private Snapshot()
+		{
+			showFoodValuesInTooltip = SHOW_FOOD_VALUES_IN_TOOLTIP.get();
+			alwaysShowFoodValuesTooltip = ALWAYS_SHOW_FOOD_VALUES_TOOLTIP.get();
+			showSaturationOverlay = SHOW_SATURATION_OVERLAY.get();
+			showFoodValuesOverlay = SHOW_FOOD_VALUES_OVERLAY.get();
+			showFoodValuesOverlayWhenOffhand = SHOW_FOOD_VALUES_OVERLAY_WHEN_OFFHAND.get();
+			showFoodExhaustionUnderlay = SHOW_FOOD_EXHAUSTION_UNDERLAY.get();
+			showFoodDebugInfo = SHOW_FOOD_DEBUG_INFO.get();
+			showFoodHealthHudOverlay = SHOW_FOOD_HEALTH_HUD_OVERLAY.get();
+			showVanillaAnimationOverlay = SHOW_VANILLA_ANIMATION_OVERLAY.get();
+			maxHudOverlayFlashAlpha = Math.max(0F, Math.min(1F, MAX_HUD_OVERLAY_FLASH_ALPHA.get().floatValue()));
+			showRenderTimesInDebugOverlay = SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY.get();
+		}
+	}
+
+	private static volatile Snapshot snapshot;
+
+	public static Snapshot getSnapshot()
+	{
+		return snapshot;
+	}
+
+	public static void updateSnapshot()
+	{
+		snapshot = new Snapshot();
 	}
 
 	private static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
@@ -89,6 +139,12 @@ public class ModConfig
 	private static final String MAX_HUD_OVERLAY_FLASH_ALPHA_COMMENT =
 		"Alpha value of the flashing icons at their most visible point (1.0 = fully opaque, 0.0 = fully transparent)";
 
+	public static final ForgeConfigSpec.BooleanValue SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY;
+	public static boolean SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_DEFAULT = false;
+	private static final String SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_NAME = "showRenderTimesInDebugOverlay";
+	private static final String SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_COMMENT =
+		"If true, adds a line that shows the average time (in microseconds) spent rendering each of AppleSkin's overlays in the F3 debug overlay";
+
 	static
 	{
 		BUILDER.push(CATEGORY_CLIENT);
@@ -122,8 +178,87 @@ public class ModConfig
 		MAX_HUD_OVERLAY_FLASH_ALPHA = BUILDER
 			.comment(MAX_HUD_OVERLAY_FLASH_ALPHA_COMMENT)
 			.defineInRange(MAX_HUD_OVERLAY_FLASH_ALPHA_NAME, MAX_HUD_OVERLAY_FLASH_ALPHA_DEFAULT, 0D, 1D);
+		SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY = BUILDER
+			.comment(SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_COMMENT)
+			.define(SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_NAME, SHOW_RENDER_TIMES_IN_DEBUG_OVERLAY_DEFAULT);
 		BUILDER.pop();
 	}
 
 	public static final ForgeConfigSpec SPEC = BUILDER.build();
-}
\ No newline at end of file
+
+	static
+	{
+		// the defaults, until the config is loaded
+		updateSnapshot();
+	}
+
+	private static final ForgeConfigSpec.Builder SERVER_BUILDER = new ForgeConfigSpec.Builder();
+
+	/*
+	 * SERVER
+	 */
+	public static final String CATEGORY_SERVER = "server";
+	private static final String CATEGORY_SERVER_COMMENT =
+		"These config settings are server-side only";
+
+	public static final ForgeConfigSpec.IntValue MAX_SYNC_UPDATES_PER_SECOND;
+	public static int MAX_SYNC_UPDATES_PER_SECOND_DEFAULT = 10;
+	private static final String MAX_SYNC_UPDATES_PER_SECOND_NAME = "maxSyncUpdatesPerSecond";
+	private static final String MAX_SYNC_UPDATES_PER_SECOND_COMMENT =
+		"The maximum number of times per second that saturation/exhaustion will be synced to each player (players are spread evenly across ticks)";
+
+	public static final ForgeConfigSpec.IntValue SYNC_BYTES_PER_SECOND_BUDGET;
+	public static int SYNC_BYTES_PER_SECOND_BUDGET_DEFAULT = 0;
+	private static final String SYNC_BYTES_PER_SECOND_BUDGET_NAME = "syncBytesPerSecondBudget";
+	private static final String SYNC_BYTES_PER_SECOND_BUDGET_COMMENT =
+		"The maximum number of bytes per second that saturation/exhaustion syncing is allowed to send to each player (0 = unlimited)";
+
+	public static final ForgeConfigSpec.BooleanValue TRACK_FOOD_STATS_CHANGES;
+	public static boolean TRACK_FOOD_STATS_CHANGES_DEFAULT = false;
+	private static final String TRACK_FOOD_STATS_CHANGES_NAME = "trackFoodStatsChanges";
+	private static final String TRACK_FOOD_STATS_CHANGES_COMMENT =
+		"If true, replaces each player's food stats with a version that tracks changes, so that players whose hunger/saturation/exhaustion did not change are skipped when syncing instead of being checked every tick. Disable if it conflicts with another mod that replaces the player's food stats";
+
+	static
+	{
+		SERVER_BUILDER.comment(CATEGORY_SERVER_COMMENT).push(CATEGORY_SERVER);
+		MAX_SYNC_UPDATES_PER_SECOND = SERVER_BUILDER
+			.comment(MAX_SYNC_UPDATES_PER_SECOND_COMMENT)
+			.defineInRange(MAX_SYNC_UPDATES_PER_SECOND_NAME, MAX_SYNC_UPDATES_PER_SECOND_DEFAULT, 1, 20);
+		SYNC_BYTES_PER_SECOND_BUDGET = SERVER_BUILDER
+			.comment(SYNC_BYTES_PER_SECOND_BUDGET_COMMENT)
+			.defineInRange(SYNC_BYTES_PER_SECOND_BUDGET_NAME, SYNC_BYTES_PER_SECOND_BUDGET_DEFAULT, 0, Integer.MAX_VALUE);
+		TRACK_FOOD_STATS_CHANGES = SERVER_BUILDER
+			.comment(TRACK_FOOD_STATS_CHANGES_COMMENT)
+			.define(TRACK_FOOD_STATS_CHANGES_NAME, TRACK_FOOD_STATS_CHANGES_DEFAULT);
+		SERVER_BUILDER.pop();
+	}
+
+	public static final ForgeConfigSpec SERVER_SPEC = SERVER_BUILDER.build();
+
+	private static final ForgeConfigSpec.Builder COMMON_BUILDER = new ForgeConfigSpec.Builder();
+
+	/*
+	 * COMMON
+	 */
+	public static final String CATEGORY_COMMON = "common";
+	private static final String CATEGORY_COMMON_COMMENT =
+		"These config settings apply to both clients and dedicated servers";
+
+	public static final ForgeConfigSpec.BooleanValue PRECOMPUTE_FOOD_PROFILES;
+	public static boolean PRECOMPUTE_FOOD_PROFILES_DEFAULT = true;
+	private static final String PRECOMPUTE_FOOD_PROFILES_NAME = "precomputeFoodProfiles";
+	private static final String PRECOMPUTE_FOOD_PROFILES_COMMENT =
+		"If true, the food values of every item are worked out in the background after loading and whenever tags are reloaded, instead of the first time each food is shown";
+
+	static
+	{
+		COMMON_BUILDER.comment(CATEGORY_COMMON_COMMENT).push(CATEGORY_COMMON);
+		PRECOMPUTE_FOOD_PROFILES = COMMON_BUILDER
+			.comment(PRECOMPUTE_FOOD_PROFILES_COMMENT)
+			.define(PRECOMPUTE_FOOD_PROFILES_NAME, PRECOMPUTE_FOOD_PROFILES_DEFAULT);
+		COMMON_BUILDER.pop();
+	}
+
+	public static final ForgeConfigSpec COMMON_SPEC = COMMON_BUILDER.build();
+}
@@ -0,0 +1,28 @@
+package squeek.appleskin.api;
+
+import squeek.appleskin.api.food.FoodIndex;
+
+public final class AppleSkinApi
+{
+	private static volatile FoodIndex foodIndex = null;
+
+	/**
+	 * @return the index of all food items, or null before AppleSkin's common setup
+	 */
+	public static FoodIndex getFoodIndex()
+	{
+		return foodIndex;
+	}
+
+	/**
+	 * Only meant to be called by AppleSkin itself
+	 */
+	public static void setFoodIndex(FoodIndex foodIndex)
+	{
+		AppleSkinApi.foodIndex = foodIndex;
+	}
+
+	private AppleSkinApi()
+	{
+	}
+}
@@ -0,0 +1,81 @@
+package squeek.appleskin.api.food;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.List;
+
+/**
+ * An index of every registered food item, kept sorted by each {@link SortKey}.
+ * Rebuilt whenever food properties can change (e.g. when tags are reloaded).
+ *
+ * Only the default food values of each item are indexed, since the modified values
+ * can depend on the player and the stack.
+ *
+ * Can be used from any thread.
+ */
+public interface FoodIndex
+{
+	enum SortKey
+	{
+		HUNGER,
+		SATURATION_INCREMENT,
+		SATURATION_MODIFIER,
+		/**
+		 * See {@link Entry#estimatedHealthIncrement}
+		 */
+		ESTIMATED_HEALTH
+	}
+
+	class Entry
+	{
+		public Entry(Item item, FoodValues defaultFoodValues, boolean isRotten, float estimatedHealthIncrement)
+		{
+			this.item = item;
+			this.defaultFoodValues = defaultFoodValues;
+			this.isRotten = isRotten;
+			this.estimatedHealthIncrement = estimatedHealthIncrement;
+		}
+
+		public final Item item;
+		public final FoodValues defaultFoodValues;
+		public final boolean isRotten;
+		/**
+		 * The health restored by eating the food with a full hunger bar and no saturation,
+		 * through natural regeneration and the food's regeneration effect.
+		 */
+		public final float estimatedHealthIncrement;
+	}
+
+	/**
+	 * @return an unmodifiable list of every food item, highest value of sortKey first
+	 */
+	List<Entry> getFoods(SortKey sortKey);
+
+	/**
+	 * @return the entry of the item, or null if the item is not a food
+	 */
+	Entry getEntry(Item item);
+
+	/**
+	 * @return the position of the item in {@link #getFoods}, or -1 if the item is not a food
+	 */
+	int getRank(Item item, SortKey sortKey);
+
+	/**
+	 * @return at most limit of the food stacks in stacks (e.g. an inventory), highest value of sortKey first
+	 */
+	List<ItemStack> getBestFoods(Iterable<ItemStack> stacks, SortKey sortKey, int limit);
+
+	/**
+	 * @return the food with the least hunger that still restores at least the given hunger,
+	 * or null if no food restores that much
+	 */
+	Entry getSmallestFoodToFill(int hunger);
+
+	/**
+	 * @return the food stack in stacks (e.g. an inventory) with the least hunger that still
+	 * restores at least the given hunger, or ItemStack.EMPTY if none of them restores that much
+	 */
+	ItemStack getSmallestFoodToFill(Iterable<ItemStack> stacks, int hunger);
+}
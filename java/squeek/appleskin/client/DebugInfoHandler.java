@@ -30,16 +30,36 @@ public class DebugInfoHandler
 		if (textEvent.getType() != RenderGameOverlayEvent.ElementType.TEXT)
 			return;
 
-		if (!ModConfig.SHOW_FOOD_DEBUG_INFO.get())
-			return;
+		ProfilerSection.DEBUG_INFO.start();
+		try
+		{
+			addDebugInfo(textEvent);
+		}
+		finally
+		{
+			ProfilerSection.DEBUG_INFO.end();
+		}
+	}
 
+	private void addDebugInfo(RenderGameOverlayEvent.Text textEvent)
+	{
 		Minecraft mc = Minecraft.getInstance();
-		if (mc.gameSettings.showDebugInfo)
+		if (!mc.gameSettings.showDebugInfo)
+			return;
+
+		ModConfig.Snapshot config = ModConfig.getSnapshot();
+		if (config.showFoodDebugInfo)
 		{
 			FoodStats stats = mc.player.getFoodStats();
 			float curExhaustion = HungerHelper.getExhaustion(mc.player);
 			float maxExhaustion = HungerHelper.getMaxExhaustion(mc.player);
 			textEvent.getLeft().add("hunger: " + stats.getFoodLevel() + ", sat: " + saturationDF.format(stats.getSaturationLevel()) + ", exh: " + exhaustionValDF.format(curExhaustion) + "/" + exhaustionMaxDF.format(maxExhaustion));
 		}
+
+		if (config.showRenderTimesInDebugOverlay)
+		{
+			textEvent.getLeft().add(ProfilerSection.getDebugInfo());
+			textEvent.getLeft().add(TooltipOverlayHandler.getFoodOverlayCacheDebugInfo());
+		}
 	}
 }
@@ -0,0 +1,61 @@
+package squeek.appleskin.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import squeek.appleskin.helpers.HungerHelper;
+
+/**
+ * Extrapolates exhaustion between server updates so that the exhaustion underlay
+ * stays smooth while the server only sends occasional corrections.
+ */
+@OnlyIn(Dist.CLIENT)
+public class ExhaustionPredictor
+{
+	private static PlayerEntity predictingFor = null;
+	private static float syncedExhaustion;
+	private static float exhaustionRate;
+	private static int ticksSinceSync;
+
+	public static void init()
+	{
+		MinecraftForge.EVENT_BUS.register(new ExhaustionPredictor());
+	}
+
+	public static void onExhaustionSync(PlayerEntity player, float exhaustion, float rate)
+	{
+		predictingFor = player;
+		syncedExhaustion = exhaustion;
+		exhaustionRate = rate;
+		ticksSinceSync = 0;
+	}
+
+	@SubscribeEvent
+	public void onClientTick(TickEvent.ClientTickEvent event)
+	{
+		if (event.phase != TickEvent.Phase.END)
+			return;
+
+		if (predictingFor == null || exhaustionRate <= 0)
+			return;
+
+		// the player entity gets recreated on respawn/dimension change, in which case the server does a full resync
+		PlayerEntity player = Minecraft.getInstance().player;
+		if (player != predictingFor)
+		{
+			predictingFor = null;
+			return;
+		}
+
+		if (Minecraft.getInstance().isGamePaused())
+			return;
+
+		++ticksSinceSync;
+		float predicted = HungerHelper.getPredictedExhaustion(syncedExhaustion, exhaustionRate, ticksSinceSync, HungerHelper.getMaxExhaustion(player));
+		HungerHelper.setExhaustion(player, predicted);
+	}
+}
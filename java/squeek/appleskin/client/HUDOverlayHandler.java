@@ -24,12 +24,12 @@ import squeek.appleskin.ModInfo;
 import squeek.appleskin.api.event.FoodValuesEvent;
 import squeek.appleskin.api.event.HUDOverlayEvent;
 import squeek.appleskin.api.food.FoodValues;
+import squeek.appleskin.helpers.EventHelper;
 import squeek.appleskin.helpers.FoodHelper;
 import squeek.appleskin.helpers.HungerHelper;
-import squeek.appleskin.util.IntPoint;
+import squeek.appleskin.util.IntPointList;
 
 import java.util.Random;
-import java.util.Vector;
 
 @OnlyIn(Dist.CLIENT)
 public class HUDOverlayHandler
@@ -39,11 +39,13 @@ public class HUDOverlayHandler
 	private byte alphaDir = 1;
 	protected int foodIconsOffset;
 
-	public final Vector<IntPoint> healthBarOffsets = new Vector<>();
-	public final Vector<IntPoint> foodBarOffsets = new Vector<>();
+	public final IntPointList healthBarOffsets = new IntPointList();
+	public final IntPointList foodBarOffsets = new IntPointList();
 
 	private final Random random = new Random();
 
+	private final IconBatch iconBatch = new IconBatch();
+
 	private static final ResourceLocation modIcons = new ResourceLocation(ModInfo.MODID_LOWER, "textures/icons.png");
 
 	public static void init()
@@ -57,12 +59,25 @@ public class HUDOverlayHandler
 		if (event.getType() != RenderGameOverlayEvent.ElementType.FOOD)
 			return;
 
+		ProfilerSection.HUD_UNDERLAY.start();
+		try
+		{
+			preRender(event);
+		}
+		finally
+		{
+			ProfilerSection.HUD_UNDERLAY.end();
+		}
+	}
+
+	private void preRender(RenderGameOverlayEvent.Pre event)
+	{
 		foodIconsOffset = ForgeIngameGui.right_height;
 
 		if (event.isCanceled())
 			return;
 
-		if (!ModConfig.SHOW_FOOD_EXHAUSTION_UNDERLAY.get())
+		if (!ModConfig.getSnapshot().showFoodExhaustionUnderlay)
 			return;
 
 		Minecraft mc = Minecraft.getInstance();
@@ -73,6 +88,13 @@ public class HUDOverlayHandler
 		int top = mc.getMainWindow().getScaledHeight() - foodIconsOffset;
 		float exhaustion = HungerHelper.getExhaustion(player);
 
+		// the events are only created when someone listens, since they'd be created on every frame
+		if (!EventHelper.hasListeners(HUDOverlayEvent.Exhaustion.class))
+		{
+			drawExhaustionOverlay(exhaustion, mc, event.getMatrixStack(), right, top, 1f);
+			return;
+		}
+
 		// Notify everyone that we should render exhaustion hud overlay
 		HUDOverlayEvent.Exhaustion renderEvent = new HUDOverlayEvent.Exhaustion(exhaustion, right, top, event.getMatrixStack());
 		MinecraftForge.EVENT_BUS.post(renderEvent);
@@ -86,6 +108,19 @@ public class HUDOverlayHandler
 		if (event.getType() != RenderGameOverlayEvent.ElementType.FOOD && event.getType() != RenderGameOverlayEvent.ElementType.HEALTH)
 			return;
 
+		ProfilerSection.HUD_OVERLAY.start();
+		try
+		{
+			render(event);
+		}
+		finally
+		{
+			ProfilerSection.HUD_OVERLAY.end();
+		}
+	}
+
+	private void render(RenderGameOverlayEvent.Post event)
+	{
 		if (event.isCanceled())
 			return;
 
@@ -103,113 +138,166 @@ public class HUDOverlayHandler
 		int right = mc.getMainWindow().getScaledWidth() / 2 + 91; // right of food bar
 
 		if (event.getType() == RenderGameOverlayEvent.ElementType.HEALTH)
-			generateHealthBarOffsets(top, left, right, mc.ingameGUI.getTicks(), player);
+			updateHealthBars(player.getMaxHealth(), player.getAbsorptionAmount(), player.getHealth());
 		if (event.getType() == RenderGameOverlayEvent.ElementType.FOOD)
-			generateHungerBarOffsets(top, left, right, mc.ingameGUI.getTicks(), player);
+			generateHungerBarOffsets(mc.ingameGUI.getTicks(), stats.getFoodLevel(), stats.getSaturationLevel());
 
-		HUDOverlayEvent.Saturation saturationRenderEvent = null;
+		// where the saturation overlay goes, as it may be moved by the saturation event
+		boolean showSaturation = false;
+		int saturationX = right;
+		int saturationY = top;
+		MatrixStack saturationMatrixStack = matrixStack;
 		if (event.getType() == RenderGameOverlayEvent.ElementType.FOOD)
 		{
-			saturationRenderEvent = new HUDOverlayEvent.Saturation(stats.getSaturationLevel(), right, top, matrixStack);
-
-			// cancel render overlay event when configuration disabled.
-			if (!ModConfig.SHOW_SATURATION_OVERLAY.get())
-				saturationRenderEvent.setCanceled(true);
+			// don't render the overlay when configuration disabled.
+			showSaturation = ModConfig.getSnapshot().showSaturationOverlay;
 
 			// notify everyone that we should render saturation hud overlay
-			if (!saturationRenderEvent.isCanceled())
+			if (showSaturation && EventHelper.hasListeners(HUDOverlayEvent.Saturation.class))
+			{
+				HUDOverlayEvent.Saturation saturationRenderEvent = new HUDOverlayEvent.Saturation(stats.getSaturationLevel(), right, top, matrixStack);
 				MinecraftForge.EVENT_BUS.post(saturationRenderEvent);
 
-			// the render saturation event maybe cancelled by other mods
-			if (!saturationRenderEvent.isCanceled())
-				drawSaturationOverlay(saturationRenderEvent, mc, 0, 1f);
-		}
-
-		// try to get the item stack in the player hand
-		ItemStack heldItem = player.getHeldItemMainhand();
-		if (ModConfig.SHOW_FOOD_VALUES_OVERLAY_WHEN_OFFHAND.get() && !FoodHelper.canConsume(heldItem, player))
-			heldItem = player.getHeldItemOffhand();
+				// the render saturation event maybe cancelled by other mods
+				showSaturation = !saturationRenderEvent.isCanceled();
+				saturationX = saturationRenderEvent.x;
+				saturationY = saturationRenderEvent.y;
+				saturationMatrixStack = saturationRenderEvent.matrixStack;
+			}
 
-		boolean shouldRenderHeldItemValues = !heldItem.isEmpty() && FoodHelper.canConsume(heldItem, player);
-		if (!shouldRenderHeldItemValues)
-		{
-			resetFlash();
-			return;
+			if (showSaturation)
+				drawSaturationOverlay(0, stats.getSaturationLevel(), mc, saturationMatrixStack, saturationX, saturationY, 1f);
 		}
 
-		FoodValues modifiedFoodValues = FoodHelper.getModifiedFoodValues(heldItem, player);
-		FoodValuesEvent foodValuesEvent = new FoodValuesEvent(player, heldItem, FoodHelper.getDefaultFoodValues(heldItem), modifiedFoodValues);
-		MinecraftForge.EVENT_BUS.post(foodValuesEvent);
-		modifiedFoodValues = foodValuesEvent.modifiedFoodValues;
+		HeldFoodOverlay heldFood = heldFoodOverlay;
+		if (heldFood == null)
+			return;
 
 		if (event.getType() == RenderGameOverlayEvent.ElementType.HEALTH)
 		{
-			// Offsets size is set to zero intentionally to disable rendering when health is infinite.
-			if (healthBarOffsets.size() == 0)
+			if (!heldFood.shouldShowEstimatedHealth)
 				return;
 
-			if (!shouldShowEstimatedHealth(heldItem, modifiedFoodValues))
+			// nothing to show if the food wouldn't restore any health
+			if (player.getHealth() >= heldFood.modifiedHealth)
 				return;
 
-			float foodHealthIncrement = FoodHelper.getEstimatedHealthIncrement(heldItem, modifiedFoodValues, player);
-			float currentHealth = player.getHealth();
-			float modifiedHealth = Math.min(currentHealth + foodHealthIncrement, player.getMaxHealth());
-
-			// only create object when the estimated health is successfully
-			HUDOverlayEvent.HealthRestored healthRenderEvent = null;
-			if (currentHealth < modifiedHealth)
-				healthRenderEvent = new HUDOverlayEvent.HealthRestored(modifiedHealth, heldItem, modifiedFoodValues, left, top, matrixStack);
+			if (!EventHelper.hasListeners(HUDOverlayEvent.HealthRestored.class))
+			{
+				drawHealthOverlay(player.getHealth(), heldFood.modifiedHealth, mc, matrixStack, left, top, flashAlpha);
+				return;
+			}
 
 			// notify everyone that we should render estimated health hud
-			if (healthRenderEvent != null)
-				MinecraftForge.EVENT_BUS.post(healthRenderEvent);
-
-			if (healthRenderEvent != null && !healthRenderEvent.isCanceled())
+			HUDOverlayEvent.HealthRestored healthRenderEvent = new HUDOverlayEvent.HealthRestored(heldFood.modifiedHealth, heldFood.itemStack, heldFood.modifiedFoodValues, left, top, matrixStack);
+			MinecraftForge.EVENT_BUS.post(healthRenderEvent);
+			if (!healthRenderEvent.isCanceled())
 				drawHealthOverlay(healthRenderEvent, mc, flashAlpha);
 		}
 		else if (event.getType() == RenderGameOverlayEvent.ElementType.FOOD)
 		{
-			if (!ModConfig.SHOW_FOOD_VALUES_OVERLAY.get())
+			if (!ModConfig.getSnapshot().showFoodValuesOverlay)
 				return;
 
 			// notify everyone that we should render hunger hud overlay
-			HUDOverlayEvent.HungerRestored renderRenderEvent = new HUDOverlayEvent.HungerRestored(stats.getFoodLevel(), heldItem, modifiedFoodValues, right, top, matrixStack);
-			MinecraftForge.EVENT_BUS.post(renderRenderEvent);
-			if (renderRenderEvent.isCanceled())
-				return;
-
-			// calculate the final hunger and saturation
-			int foodHunger = modifiedFoodValues.hunger;
-			float foodSaturationIncrement = modifiedFoodValues.getSaturationIncrement();
+			if (EventHelper.hasListeners(HUDOverlayEvent.HungerRestored.class))
+			{
+				HUDOverlayEvent.HungerRestored renderRenderEvent = new HUDOverlayEvent.HungerRestored(stats.getFoodLevel(), heldFood.itemStack, heldFood.modifiedFoodValues, right, top, matrixStack);
+				MinecraftForge.EVENT_BUS.post(renderRenderEvent);
+				if (renderRenderEvent.isCanceled())
+					return;
 
-			// restored hunger/saturation overlay while holding food
-			drawHungerOverlay(renderRenderEvent, mc, foodHunger, flashAlpha, FoodHelper.isRotten(heldItem));
+				// restored hunger/saturation overlay while holding food
+				drawHungerOverlay(renderRenderEvent, mc, heldFood.modifiedFoodValues.hunger, flashAlpha, heldFood.isRotten);
+			}
+			else
+				drawHungerOverlay(heldFood.modifiedFoodValues.hunger, stats.getFoodLevel(), mc, matrixStack, right, top, flashAlpha, heldFood.isRotten);
 
 			// The render saturation overlay event maybe cancelled by other mods
-			assert saturationRenderEvent != null;
-			if (!saturationRenderEvent.isCanceled())
+			if (showSaturation)
 			{
-				int newFoodValue = stats.getFoodLevel() + foodHunger;
-				float newSaturationValue = stats.getSaturationLevel() + foodSaturationIncrement;
-				float saturationGained = newSaturationValue > newFoodValue ? newFoodValue - stats.getSaturationLevel() : foodSaturationIncrement;
 				// Redraw saturation overlay for gained
-				drawSaturationOverlay(saturationRenderEvent, mc, saturationGained, flashAlpha);
+				drawSaturationOverlay(heldFood.saturationGained, stats.getSaturationLevel(), mc, saturationMatrixStack, saturationX, saturationY, flashAlpha);
 			}
 		}
 	}
 
+	/*
+	 * The held food overlay only depends on the game state, so it is built once per client tick
+	 * instead of on every frame (where it would also be built twice, once for HEALTH and once for FOOD).
+	 * A new instance replaces the old one each tick, so the render callbacks never see a partially updated overlay.
+	 */
+	static class HeldFoodOverlay
+	{
+		final ItemStack itemStack;
+		final FoodValues modifiedFoodValues;
+		final boolean isRotten;
+		final float saturationGained;
+		final boolean shouldShowEstimatedHealth;
+		final float modifiedHealth;
+
+		HeldFoodOverlay(ItemStack itemStack, FoodValues modifiedFoodValues, boolean isRotten, float saturationGained, boolean shouldShowEstimatedHealth, float modifiedHealth)
+		{
+			this.itemStack = itemStack;
+			this.modifiedFoodValues = modifiedFoodValues;
+			this.isRotten = isRotten;
+			this.saturationGained = saturationGained;
+			this.shouldShowEstimatedHealth = shouldShowEstimatedHealth;
+			this.modifiedHealth = modifiedHealth;
+		}
+	}
+
+	private HeldFoodOverlay heldFoodOverlay = null;
+
+	private HeldFoodOverlay createHeldFoodOverlay(PlayerEntity player)
+	{
+		// try to get the item stack in the player hand
+		ItemStack heldItem = player.getHeldItemMainhand();
+		if (ModConfig.getSnapshot().showFoodValuesOverlayWhenOffhand && !FoodHelper.canConsume(heldItem, player))
+			heldItem = player.getHeldItemOffhand();
+
+		boolean shouldRenderHeldItemValues = !heldItem.isEmpty() && FoodHelper.canConsume(heldItem, player);
+		if (!shouldRenderHeldItemValues)
+			return null;
+
+		FoodValues modifiedFoodValues = FoodHelper.getModifiedFoodValues(heldItem, player);
+		if (EventHelper.hasListeners(FoodValuesEvent.class))
+		{
+			FoodValuesEvent foodValuesEvent = new FoodValuesEvent(player, heldItem, FoodHelper.getDefaultFoodValues(heldItem), modifiedFoodValues);
+			MinecraftForge.EVENT_BUS.post(foodValuesEvent);
+			modifiedFoodValues = foodValuesEvent.modifiedFoodValues;
+		}
+
+		FoodStats stats = player.getFoodStats();
+
+		// calculate the final hunger and saturation
+		int newFoodValue = stats.getFoodLevel() + modifiedFoodValues.hunger;
+		float foodSaturationIncrement = modifiedFoodValues.getSaturationIncrement();
+		float newSaturationValue = stats.getSaturationLevel() + foodSaturationIncrement;
+		float saturationGained = newSaturationValue > newFoodValue ? newFoodValue - stats.getSaturationLevel() : foodSaturationIncrement;
+
+		boolean shouldShowEstimatedHealth = shouldShowEstimatedHealth(player, heldItem, modifiedFoodValues);
+		float modifiedHealth = 0;
+		if (shouldShowEstimatedHealth)
+		{
+			float foodHealthIncrement = FoodHelper.getEstimatedHealthIncrement(heldItem, modifiedFoodValues, player);
+			modifiedHealth = Math.min(player.getHealth() + foodHealthIncrement, player.getMaxHealth());
+		}
+
+		return new HeldFoodOverlay(heldItem, modifiedFoodValues, FoodHelper.isRotten(heldItem), saturationGained, shouldShowEstimatedHealth, modifiedHealth);
+	}
+
 	public void drawSaturationOverlay(float saturationGained, float saturationLevel, Minecraft mc, MatrixStack matrixStack, int right, int top, float alpha)
 	{
 		if (saturationLevel + saturationGained < 0)
 			return;
 
-		enableAlpha(alpha);
-		mc.getTextureManager().bindTexture(modIcons);
+		iconBatch.begin(matrixStack, modIcons, mc.ingameGUI.getBlitOffset());
 
 		float modifiedSaturation = Math.max(0, Math.min(saturationLevel + saturationGained, 20));
 
 		int startSaturationBar = 0;
-		int endSaturationBar = (int) Math.ceil(modifiedSaturation / 2.0F);
+		int endSaturationBar = Math.min((int) Math.ceil(modifiedSaturation / 2.0F), foodBarOffsets.size());
 
 		// when require rendering the gained saturation, start should relocation to current saturation tail.
 		if (saturationGained != 0)
@@ -220,12 +308,8 @@ public class HUDOverlayHandler
 		for (int i = startSaturationBar; i < endSaturationBar; ++i)
 		{
 			// gets the offset that needs to be render of icon
-			IntPoint offset = foodBarOffsets.get(i);
-			if (offset == null)
-				continue;
-
-			int x = right + offset.x;
-			int y = top + offset.y;
+			int x = right + foodBarOffsets.getX(i);
+			int y = top + foodBarOffsets.getY(i);
 
 			int v = 0;
 			int u = 0;
@@ -239,9 +323,11 @@ public class HUDOverlayHandler
 			else if (effectiveSaturationOfBar > .25)
 				u = 1 * iconSize;
 
-			mc.ingameGUI.blit(matrixStack, x, y, u, v, iconSize, iconSize);
+			iconBatch.blit(x, y, u, v, iconSize, iconSize, alpha);
 		}
 
+		iconBatch.end();
+
 		// rebind default icons
 		mc.getTextureManager().bindTexture(AbstractGui.GUI_ICONS_LOCATION);
 		disableAlpha(alpha);
@@ -252,13 +338,12 @@ public class HUDOverlayHandler
 		if (hungerRestored <= 0)
 			return;
 
-		enableAlpha(alpha);
-		mc.getTextureManager().bindTexture(AbstractGui.GUI_ICONS_LOCATION);
+		iconBatch.begin(matrixStack, AbstractGui.GUI_ICONS_LOCATION, mc.ingameGUI.getBlitOffset());
 
 		int modifiedFood = Math.max(0, Math.min(20, foodLevel + hungerRestored));
 
 		int startFoodBars = Math.max(0, foodLevel / 2);
-		int endFoodBars = (int) Math.ceil(modifiedFood / 2.0F);
+		int endFoodBars = Math.min((int) Math.ceil(modifiedFood / 2.0F), foodBarOffsets.size());
 
 		int iconStartOffset = 16;
 		int iconSize = 9;
@@ -266,12 +351,8 @@ public class HUDOverlayHandler
 		for (int i = startFoodBars; i < endFoodBars; ++i)
 		{
 			// gets the offset that needs to be render of icon
-			IntPoint offset = foodBarOffsets.get(i);
-			if (offset == null)
-				continue;
-
-			int x = right + offset.x;
-			int y = top + offset.y;
+			int x = right + foodBarOffsets.getX(i);
+			int y = top + foodBarOffsets.getY(i);
 
 			// location to normal food by default
 			int v = 3 * iconSize;
@@ -290,13 +371,11 @@ public class HUDOverlayHandler
 				u += 1 * iconSize;
 
 			// very faint background
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, alpha * 0.25F);
-			mc.ingameGUI.blit(matrixStack, x, y, ub, v, iconSize, iconSize);
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, alpha);
-
-			mc.ingameGUI.blit(matrixStack, x, y, u, v, iconSize, iconSize);
+			iconBatch.blit(x, y, ub, v, iconSize, iconSize, alpha * 0.25F);
+			iconBatch.blit(x, y, u, v, iconSize, iconSize, alpha);
 		}
 
+		iconBatch.end();
 		disableAlpha(alpha);
 	}
 
@@ -305,27 +384,26 @@ public class HUDOverlayHandler
 		if (modifiedHealth <= health)
 			return;
 
-		enableAlpha(alpha);
-		mc.getTextureManager().bindTexture(AbstractGui.GUI_ICONS_LOCATION);
+		int startHealthBars = (int) Math.max(0, (Math.ceil(health) / 2.0F));
+		int endHealthBars = (int) Math.min(Math.max(0, Math.ceil(modifiedHealth / 2.0F)), healthBars);
+		if (startHealthBars >= endHealthBars)
+			return;
+
+		generateHealthBarOffsets(mc.ingameGUI.getTicks(), startHealthBars, endHealthBars);
+
+		iconBatch.begin(matrixStack, AbstractGui.GUI_ICONS_LOCATION, mc.ingameGUI.getBlitOffset());
 
 		int fixedModifiedHealth = (int) Math.ceil(modifiedHealth);
 		boolean isHardcore = mc.player.world != null && mc.player.world.getWorldInfo().isHardcore();
 
-		int startHealthBars = (int) Math.max(0, (Math.ceil(health) / 2.0F));
-		int endHealthBars = (int) Math.max(0, Math.ceil(modifiedHealth / 2.0F));
-
 		int iconStartOffset = 16;
 		int iconSize = 9;
 
 		for (int i = startHealthBars; i < endHealthBars; ++i)
 		{
 			// gets the offset that needs to be render of icon
-			IntPoint offset = healthBarOffsets.get(i);
-			if (offset == null)
-				continue;
-
-			int x = right + offset.x;
-			int y = top + offset.y;
+			int x = right + healthBarOffsets.getX(i - healthBarOffsetsStart);
+			int y = top + healthBarOffsets.getY(i - healthBarOffsetsStart);
 
 			// location to full heart icon by default
 			int v = 0 * iconSize;
@@ -333,7 +411,7 @@ public class HUDOverlayHandler
 			int ub = iconStartOffset + 1 * iconSize;
 
 			// relocation to half heart
-			if (i * 2 + 1 == fixedModifiedHealth)
+			if (i * 2L + 1 == fixedModifiedHealth)
 				u += 1 * iconSize;
 
 			// relocation to special heart of hardcore
@@ -348,35 +426,33 @@ public class HUDOverlayHandler
 			//}
 
 			// very faint background
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, alpha * 0.25F);
-			mc.ingameGUI.blit(matrixStack, x, y, ub, v, iconSize, iconSize);
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, alpha);
-
-			mc.ingameGUI.blit(matrixStack, x, y, u, v, iconSize, iconSize);
+			iconBatch.blit(x, y, ub, v, iconSize, iconSize, alpha * 0.25F);
+			iconBatch.blit(x, y, u, v, iconSize, iconSize, alpha);
 		}
 
+		iconBatch.end();
 		disableAlpha(alpha);
 	}
 
 	public void drawExhaustionOverlay(float exhaustion, Minecraft mc, MatrixStack matrixStack, int right, int top, float alpha)
 	{
-		mc.getTextureManager().bindTexture(modIcons);
-
 		float maxExhaustion = HungerHelper.getMaxExhaustion(mc.player);
-		// clamp between 0 and 1
-		float ratio = Math.min(1, Math.max(0, exhaustion / maxExhaustion));
-		int width = (int) (ratio * 81);
+		int width = HungerHelper.getExhaustionBarWidth(exhaustion, maxExhaustion);
 		int height = 9;
 
-		enableAlpha(.75f);
-		mc.ingameGUI.blit(matrixStack, right - width, top, 81 - width, 18, width, height);
+		iconBatch.begin(matrixStack, modIcons, mc.ingameGUI.getBlitOffset());
+		iconBatch.blit(right - width, top, HungerHelper.EXHAUSTION_BAR_WIDTH - width, 18, width, height, .75f);
+		iconBatch.end();
 		disableAlpha(.75f);
 
 		// rebind default icons
 		mc.getTextureManager().bindTexture(AbstractGui.GUI_ICONS_LOCATION);
 	}
 
-
+	/**
+	 * @deprecated no longer used by AppleSkin, the icons are drawn through an {@link IconBatch} with their alpha in the vertices
+	 */
+	@Deprecated
 	public static void enableAlpha(float alpha)
 	{
 		RenderSystem.enableBlend();
@@ -396,6 +472,14 @@ public class HUDOverlayHandler
 		if (event.phase != TickEvent.Phase.END)
 			return;
 
+		PlayerEntity player = Minecraft.getInstance().player;
+		heldFoodOverlay = player != null && shouldRenderAnyOverlays() ? createHeldFoodOverlay(player) : null;
+		if (heldFoodOverlay == null)
+		{
+			resetFlash();
+			return;
+		}
+
 		unclampedFlashAlpha += alphaDir * 0.125f;
 		if (unclampedFlashAlpha >= 1.5f)
 		{
@@ -405,7 +489,7 @@ public class HUDOverlayHandler
 		{
 			alphaDir = 1;
 		}
-		flashAlpha = Math.max(0F, Math.min(1F, unclampedFlashAlpha)) * Math.max(0F, Math.min(1F, ModConfig.MAX_HUD_OVERLAY_FLASH_ALPHA.get().floatValue()));
+		flashAlpha = Math.max(0F, Math.min(1F, unclampedFlashAlpha)) * ModConfig.getSnapshot().maxHudOverlayFlashAlpha;
 	}
 
 	public void resetFlash()
@@ -414,11 +498,6 @@ public class HUDOverlayHandler
 		alphaDir = 1;
 	}
 
-	private void drawSaturationOverlay(HUDOverlayEvent.Saturation event, Minecraft mc, float saturationGained, float alpha)
-	{
-		drawSaturationOverlay(saturationGained, event.saturationLevel, mc, event.matrixStack, event.x, event.y, alpha);
-	}
-
 	private void drawHungerOverlay(HUDOverlayEvent.HungerRestored event, Minecraft mc, int hunger, float alpha, boolean useRottenTextures)
 	{
 		drawHungerOverlay(hunger, event.currentFoodLevel, mc, event.matrixStack, event.x, event.y, alpha, useRottenTextures);
@@ -436,17 +515,16 @@ public class HUDOverlayHandler
 
 	private boolean shouldRenderAnyOverlays()
 	{
-		return ModConfig.SHOW_FOOD_VALUES_OVERLAY.get() || ModConfig.SHOW_SATURATION_OVERLAY.get() || ModConfig.SHOW_FOOD_HEALTH_HUD_OVERLAY.get();
+		ModConfig.Snapshot config = ModConfig.getSnapshot();
+		return config.showFoodValuesOverlay || config.showSaturationOverlay || config.showFoodHealthHudOverlay;
 	}
 
-	private boolean shouldShowEstimatedHealth(ItemStack hoveredStack, FoodValues modifiedFoodValues)
+	private boolean shouldShowEstimatedHealth(PlayerEntity player, ItemStack hoveredStack, FoodValues modifiedFoodValues)
 	{
 		// then configuration cancel the render event
-		if (!ModConfig.SHOW_FOOD_HEALTH_HUD_OVERLAY.get())
+		if (!ModConfig.getSnapshot().showFoodHealthHudOverlay)
 			return false;
 
-		Minecraft mc = Minecraft.getInstance();
-		PlayerEntity player = mc.player;
 		FoodStats stats = player.getFoodStats();
 
 		// in the `PEACEFUL` mode, health will restore faster
@@ -470,108 +548,144 @@ public class HUDOverlayHandler
 		return true;
 	}
 
-	private void generateHealthBarOffsets(int top, int left, int right, int ticks, PlayerEntity player)
-	{
-		// hard code in `InGameHUD`
-		random.setSeed((long) (ticks * 312871L));
+	/*
+	 * How vanilla lays out the hearts. This is cheap to work out, so it's updated every frame.
+	 */
+	private int healthBars = 0;
+	private int healthRowHeight = 10;
+	private boolean shouldAnimatedHealth = false;
 
-		final int preferHealthBars = 10;
-		final float maxHealth = player.getMaxHealth();
-		final float absorptionHealth = (float) Math.ceil(player.getAbsorptionAmount());
+	// Past this many hearts, the heartbeat animation is not reproduced, since that means
+	// going through the random for every single heart, even the ones that aren't drawn
+	private static final int MAX_ANIMATED_HEALTH_BARS = 1000;
+
+	void updateHealthBars(float maxHealth, float absorptionAmount, float health)
+	{
+		final float absorptionHealth = (float) Math.ceil(absorptionAmount);
+		final float exactHealthBars = (maxHealth + absorptionHealth) / 2.0F;
 
-		int healthBars = (int) Math.ceil((maxHealth + absorptionHealth) / 2.0F);
 		// When maxHealth + absorptionHealth is greater than Integer.INT_MAX,
 		// Minecraft will disable heart rendering due to a quirk of MathHelper.ceil.
-		// We have a much lower threshold since there's no reason to get the offsets
-		// for thousands of hearts.
 		// Note: Infinite and > INT_MAX absorption has been seen in the wild.
-		// This will effectively disable rendering whenever health is unexpectedly large.
-		if (healthBars < 0 || healthBars > 1000) {
-			healthBarOffsets.setSize(0);
-			return;
-		}
+		if (exactHealthBars > 0 && exactHealthBars <= Integer.MAX_VALUE)
+			healthBars = (int) Math.ceil(exactHealthBars);
+		else
+			healthBars = 0;
 
-		int healthRows = (int) Math.ceil((float) healthBars / 10.0F);
+		int healthRows = healthBars / 10 + (healthBars % 10 != 0 ? 1 : 0);
 
-		int healthRowHeight = Math.max(10 - (healthRows - 2), 3);
+		healthRowHeight = Math.max(10 - (healthRows - 2), 3);
 
-		boolean shouldAnimatedHealth = false;
+		shouldAnimatedHealth = false;
 
 		// when some mods using custom render, we need to least provide an option to cancel animation
-		if (ModConfig.SHOW_VANILLA_ANIMATION_OVERLAY.get())
+		if (ModConfig.getSnapshot().showVanillaAnimationOverlay)
 		{
 			// in vanilla health is too low (below 5) will show heartbeat animation
 			// when regeneration will also show heartbeat animation, but we don't need now
-			shouldAnimatedHealth = Math.ceil(player.getHealth()) <= 4;
+			shouldAnimatedHealth = Math.ceil(health) <= 4 && healthBars <= MAX_ANIMATED_HEALTH_BARS;
+		}
+	}
+
+	/*
+	 * The offsets are relative to the bars, so they only depend on the hearts' layout and on the
+	 * heartbeat/hunger animations. They're only regenerated when one of those changes, which
+	 * outside of the animations means almost never.
+	 *
+	 * Only the hearts that are actually drawn (the ones the held food would restore) get offsets,
+	 * so the cost doesn't depend on how big the player's health pool is.
+	 */
+	private int healthBarOffsetsStart = 0;
+	private int healthBarOffsetsBars = -1;
+	private boolean healthBarOffsetsAnimated = false;
+	private int healthBarOffsetsTicks = -1;
+	private boolean foodBarOffsetsAnimated = true;
+	private int foodBarOffsetsTicks = -1;
+
+	void generateHealthBarOffsets(int ticks, int startBar, int endBar)
+	{
+		final int preferHealthBars = 10;
+
+		// the animated offsets are random, but the same for every frame of a tick
+		if (startBar == healthBarOffsetsStart && endBar - startBar == healthBarOffsets.size() && healthBars == healthBarOffsetsBars
+			&& shouldAnimatedHealth == healthBarOffsetsAnimated && (!shouldAnimatedHealth || ticks == healthBarOffsetsTicks))
+			return;
+
+		healthBarOffsetsStart = startBar;
+		healthBarOffsetsBars = healthBars;
+		healthBarOffsetsAnimated = shouldAnimatedHealth;
+		healthBarOffsetsTicks = ticks;
+
+		if (shouldAnimatedHealth)
+		{
+			// hard code in `InGameHUD`
+			random.setSeed((long) (ticks * 312871L));
+
+			// vanilla goes through the hearts from last to first, skip over the ones after the drawn ones
+			for (int i = healthBars - 1; i >= endBar; --i)
+				random.nextInt(2);
 		}
 
 		// adjust the size
-		if (healthBarOffsets.size() != healthBars)
-			healthBarOffsets.setSize(healthBars);
+		healthBarOffsets.setSize(endBar - startBar);
 
 		// left alignment, multiple rows, reverse
-		for (int i = healthBars - 1; i >= 0; --i)
+		for (int i = endBar - 1; i >= startBar; --i)
 		{
-			int row = (int) Math.ceil((float) (i + 1) / (float) preferHealthBars) - 1;
-			int x = left + i % preferHealthBars * 8;
-			int y = top - row * healthRowHeight;
+			int row = i / preferHealthBars;
+			int x = i % preferHealthBars * 8;
+			int y = -row * healthRowHeight;
 			// apply the animated offset
 			if (shouldAnimatedHealth)
 				y += random.nextInt(2);
 
-			// reuse the point object to reduce memory usage
-			IntPoint point = healthBarOffsets.get(i);
-			if (point == null)
-			{
-				point = new IntPoint();
-				healthBarOffsets.set(i, point);
-			}
-
-			point.x = x - left;
-			point.y = y - top;
+			healthBarOffsets.set(i - startBar, x, y);
 		}
 	}
 
-	private void generateHungerBarOffsets(int top, int left, int right, int ticks, PlayerEntity player)
+	void generateHungerBarOffsets(int ticks, int foodLevel, float saturationLevel)
 	{
 		final int preferFoodBars = 10;
 
 		boolean shouldAnimatedFood = false;
 
 		// when some mods using custom render, we need to least provide an option to cancel animation
-		if (ModConfig.SHOW_VANILLA_ANIMATION_OVERLAY.get())
+		if (ModConfig.getSnapshot().showVanillaAnimationOverlay)
 		{
-			FoodStats stats = player.getFoodStats();
-
 			// in vanilla saturation level is zero will show hunger animation
-			float saturationLevel = stats.getSaturationLevel();
-			int foodLevel = stats.getFoodLevel();
 			shouldAnimatedFood = saturationLevel <= 0.0F && ticks % (foodLevel * 3 + 1) == 0;
 		}
 
-		if (foodBarOffsets.size() != preferFoodBars)
-			foodBarOffsets.setSize(preferFoodBars);
+		if (shouldAnimatedFood == foodBarOffsetsAnimated && (!shouldAnimatedFood || ticks == foodBarOffsetsTicks))
+			return;
+
+		foodBarOffsetsAnimated = shouldAnimatedFood;
+		foodBarOffsetsTicks = ticks;
+
+		if (shouldAnimatedFood)
+		{
+			// vanilla keeps using the random it seeded for the hearts, so skip over whatever the hearts took from it
+			random.setSeed((long) (ticks * 312871L));
+			if (shouldAnimatedHealth)
+			{
+				for (int i = 0; i < healthBars; ++i)
+					random.nextInt(2);
+			}
+		}
+
+		foodBarOffsets.setSize(preferFoodBars);
 
 		// right alignment, single row
 		for (int i = 0; i < preferFoodBars; ++i)
 		{
-			int x = right - i * 8 - 9;
-			int y = top;
+			int x = -i * 8 - 9;
+			int y = 0;
 
 			// apply the animated offset
 			if (shouldAnimatedFood)
 				y += random.nextInt(3) - 1;
 
-			// reuse the point object to reduce memory usage
-			IntPoint point = foodBarOffsets.get(i);
-			if (point == null)
-			{
-				point = new IntPoint();
-				foodBarOffsets.set(i, point);
-			}
-
-			point.x = x - right;
-			point.y = y - top;
+			foodBarOffsets.set(i, x, y);
 		}
 	}
 }
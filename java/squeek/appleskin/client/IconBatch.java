@@ -0,0 +1,82 @@
+package squeek.appleskin.client;
+
+import com.mojang.blaze3d.matrix.MatrixStack;
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.BufferBuilder;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.WorldVertexBufferUploader;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.vector.Matrix4f;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Collects icons from a single texture into one vertex buffer so that they can be drawn
+ * with one draw call, instead of a blit (and often a color change) per icon.
+ *
+ * The alpha of each icon is stored in its vertices, so icons with different alpha
+ * (e.g. a faint background below a flashing icon) can share a batch.
+ */
+@OnlyIn(Dist.CLIENT)
+public class IconBatch
+{
+	// both the vanilla icons and our icons are 256x256, same as what AbstractGui.blit assumes
+	private static final float TEXTURE_SIZE = 256f;
+
+	private ResourceLocation texture = null;
+	private Matrix4f matrix;
+	private int blitOffset;
+
+	public void begin(MatrixStack matrixStack, ResourceLocation texture, int blitOffset)
+	{
+		// a previous batch never got to end() (e.g. something threw while it was being built),
+		// so draw what it had instead of leaving the buffer building forever and failing every later frame
+		if (this.texture != null)
+			end();
+
+		this.texture = texture;
+		this.matrix = matrixStack.getLast().getMatrix();
+		this.blitOffset = blitOffset;
+		Tessellator.getInstance().getBuffer().begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_COLOR_TEX);
+	}
+
+	public void blit(int x, int y, int u, int v, int width, int height, float alpha)
+	{
+		float minU = u / TEXTURE_SIZE;
+		float maxU = (u + width) / TEXTURE_SIZE;
+		float minV = v / TEXTURE_SIZE;
+		float maxV = (v + height) / TEXTURE_SIZE;
+
+		BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+		buffer.pos(matrix, x, y + height, blitOffset).color(1.0F, 1.0F, 1.0F, alpha).tex(minU, maxV).endVertex();
+		buffer.pos(matrix, x + width, y + height, blitOffset).color(1.0F, 1.0F, 1.0F, alpha).tex(maxU, maxV).endVertex();
+		buffer.pos(matrix, x + width, y, blitOffset).color(1.0F, 1.0F, 1.0F, alpha).tex(maxU, minV).endVertex();
+		buffer.pos(matrix, x, y, blitOffset).color(1.0F, 1.0F, 1.0F, alpha).tex(minU, minV).endVertex();
+	}
+
+	/**
+	 * Draws everything added since {@link #begin}, leaving blending enabled and the batch's texture bound
+	 */
+	public void end()
+	{
+		if (texture == null)
+			throw new IllegalStateException("Not building a batch");
+
+		BufferBuilder buffer = Tessellator.getInstance().getBuffer();
+		buffer.finishDrawing();
+
+		Minecraft.getInstance().getTextureManager().bindTexture(texture);
+		RenderSystem.enableBlend();
+		RenderSystem.defaultBlendFunc();
+		RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
+		WorldVertexBufferUploader.draw(buffer);
+		// the current color is undefined after drawing with per-vertex colors
+		RenderSystem.clearCurrentColor();
+
+		texture = null;
+		matrix = null;
+	}
+}
@@ -0,0 +1,50 @@
+package squeek.appleskin.client;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import squeek.appleskin.helpers.HungerHelper;
+import squeek.appleskin.network.LocalFoodStatsSnapshot;
+
+/**
+ * Applies the food stats published by the integrated server to the host's client player.
+ */
+@OnlyIn(Dist.CLIENT)
+public class LocalFoodStatsHandler
+{
+	private LocalFoodStatsSnapshot lastAppliedSnapshot = null;
+	private PlayerEntity lastAppliedPlayer = null;
+
+	public static void init()
+	{
+		MinecraftForge.EVENT_BUS.register(new LocalFoodStatsHandler());
+	}
+
+	@SubscribeEvent
+	public void onClientTick(TickEvent.ClientTickEvent event)
+	{
+		if (event.phase != TickEvent.Phase.START)
+			return;
+
+		LocalFoodStatsSnapshot snapshot = LocalFoodStatsSnapshot.getCurrent();
+		if (snapshot == null)
+			return;
+
+		PlayerEntity player = Minecraft.getInstance().player;
+		if (player == null)
+			return;
+
+		// the player entity gets recreated on respawn/dimension change, so it needs to be reapplied then too
+		if (snapshot == lastAppliedSnapshot && player == lastAppliedPlayer)
+			return;
+
+		player.getFoodStats().setFoodSaturationLevel(snapshot.saturationLevel);
+		HungerHelper.setExhaustion(player, snapshot.exhaustionLevel);
+		lastAppliedSnapshot = snapshot;
+		lastAppliedPlayer = player;
+	}
+}
@@ -0,0 +1,98 @@
+package squeek.appleskin.client;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.Minecraft;
+import net.minecraft.profiler.IProfiler;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.api.distmarker.OnlyIn;
+import squeek.appleskin.ModConfig;
+import squeek.appleskin.ModInfo;
+
+import java.util.Locale;
+
+/**
+ * Named sections of the vanilla profiler (under "appleskin") wrapped around our render paths,
+ * so that they show up in /debug profiles and the F3 profiler chart.
+ *
+ * When enabled in the config, the time spent in each section is also kept as
+ * a rolling average and shown in the F3 debug overlay.
+ */
+@OnlyIn(Dist.CLIENT)
+public enum ProfilerSection
+{
+	HUD_UNDERLAY("hudUnderlay"),
+	HUD_OVERLAY("hudOverlay"),
+	TOOLTIP("tooltip"),
+	TOOLTIP_RENDER("tooltipRender"),
+	DEBUG_INFO("debugInfo");
+
+	private static final int AVERAGED_SAMPLES = 128;
+
+	public final String sectionName;
+
+	private final long[] samples = new long[AVERAGED_SAMPLES];
+	private int nextSample = 0;
+	private int sampleCount = 0;
+	private long sampleSum = 0;
+
+	private boolean isTiming = false;
+	private long startNanos;
+
+	ProfilerSection(String sectionName)
+	{
+		this.sectionName = sectionName;
+	}
+
+	public void start()
+	{
+		// tooltips can also be built off the render thread (e.g. when indexing items for searching),
+		// and the profiler can only be used from the render thread
+		if (!RenderSystem.isOnRenderThread())
+			return;
+
+		IProfiler profiler = Minecraft.getInstance().getProfiler();
+		profiler.startSection(ModInfo.MODID);
+		profiler.startSection(sectionName);
+
+		isTiming = ModConfig.getSnapshot().showRenderTimesInDebugOverlay;
+		if (isTiming)
+			startNanos = System.nanoTime();
+	}
+
+	public void end()
+	{
+		if (!RenderSystem.isOnRenderThread())
+			return;
+
+		if (isTiming)
+		{
+			addSample(System.nanoTime() - startNanos);
+			isTiming = false;
+		}
+
+		IProfiler profiler = Minecraft.getInstance().getProfiler();
+		profiler.endSection();
+		profiler.endSection();
+	}
+
+	private void addSample(long nanos)
+	{
+		sampleSum += nanos - samples[nextSample];
+		samples[nextSample] = nanos;
+		nextSample = (nextSample + 1) % AVERAGED_SAMPLES;
+		sampleCount = Math.min(sampleCount + 1, AVERAGED_SAMPLES);
+	}
+
+	public double getAverageMicros()
+	{
+		return sampleCount > 0 ? sampleSum / 1000D / sampleCount : 0;
+	}
+
+	public static String getDebugInfo()
+	{
+		StringBuilder s = new StringBuilder("appleskin \u00b5s/call:");
+		for (ProfilerSection section : values())
+			s.append(' ').append(section.sectionName).append(' ').append(String.format(Locale.ROOT, "%.1f", section.getAverageMicros()));
+		return s.toString();
+	}
+}
@@ -6,8 +6,9 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.AbstractGui;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.renderer.RenderHelper;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
+import net.minecraft.resources.IReloadableResourceManager;
+import net.minecraft.resources.IResourceManagerReloadListener;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.ITextProperties;
@@ -24,11 +25,16 @@ import squeek.appleskin.ModInfo;
 import squeek.appleskin.api.event.FoodValuesEvent;
 import squeek.appleskin.api.event.TooltipOverlayEvent;
 import squeek.appleskin.api.food.FoodValues;
+import squeek.appleskin.helpers.EventHelper;
 import squeek.appleskin.helpers.FoodHelper;
 import squeek.appleskin.helpers.KeyHelper;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 
 @OnlyIn(Dist.CLIENT)
 public class TooltipOverlayHandler
@@ -41,8 +47,14 @@ public class TooltipOverlayHandler
 	public static void init()
 	{
 		MinecraftForge.EVENT_BUS.register(new TooltipOverlayHandler());
+
+		// the placeholders are sized with the current font, which resource packs can replace
+		((IReloadableResourceManager) Minecraft.getInstance().getResourceManager()).addReloadListener((IResourceManagerReloadListener) resourceManager -> foodOverlayCache.clear());
 	}
 
+	private final IconBatch iconBatch = new IconBatch();
+	private static final FoodOverlayCache foodOverlayCache = new FoodOverlayCache();
+
 	private static final TextureOffsets normalBarTextureOffsets = new TextureOffsets();
 
 	static
@@ -97,21 +109,26 @@ public class TooltipOverlayHandler
 			this.foodOverlay = foodOverlay;
 		}
 
+		// Only used from the render thread, so the acceptor and its result can be shared
+		private static Object firstFontId;
+		private static final Optional<Boolean> STOP = Optional.of(Boolean.TRUE);
+		private static final ITextProperties.IStyledTextAcceptor<Boolean> firstFontIdAcceptor = (style, string) -> {
+			firstFontId = style.getFontId();
+			return STOP;
+		};
+
 		static Object getFontId(ITextProperties line)
 		{
 			// A fast path, however not all lines conform `ITextComponent`.
 			if (line instanceof ITextComponent)
 				return ((ITextComponent)line).getStyle().getFontId();
 
-			// A slow path, only to check frist string.
-			final Object[] fontId = { Style.DEFAULT_FONT };
-			line.getComponentWithStyle(new ITextProperties.IStyledTextAcceptor<ITextProperties>() {
-				public Optional<ITextProperties> accept(Style n, String s) {
-					fontId[0] = n.getFontId();
-					return Optional.empty();
-				}
-			}, Style.EMPTY);
-			return fontId[0];
+			// A slow path (e.g. for wrapped lines), only to check the first string.
+			firstFontId = Style.DEFAULT_FONT;
+			line.getComponentWithStyle(firstFontIdAcceptor, Style.EMPTY);
+			Object fontId = firstFontId;
+			firstFontId = null;
+			return fontId;
 		}
 
 		static FoodOverlay getFoodOverlay(ITextProperties line)
@@ -138,14 +155,16 @@ public class TooltipOverlayHandler
 		private String saturationBarsText;
 
 		private String tooltip;
+		private int tooltipSpaceWidth;
+		private Style style;
 
-		private ItemStack itemStack;
+		private boolean isRotten;
 
-		FoodOverlay(ItemStack itemStack, FoodValues defaultFood, FoodValues modifiedFood, PlayerEntity player)
+		FoodOverlay(FoodValues defaultFood, FoodValues modifiedFood, boolean isRotten)
 		{
-			this.itemStack = itemStack;
 			this.defaultFood = defaultFood;
 			this.modifiedFood = modifiedFood;
+			this.isRotten = isRotten;
 
 			biggestHunger = Math.max(defaultFood.hunger, modifiedFood.hunger);
 			biggestSaturationIncrement = Math.max(defaultFood.getSaturationIncrement(), modifiedFood.getSaturationIncrement());
@@ -165,51 +184,251 @@ public class TooltipOverlayHandler
 			}
 		}
 
-		String getTooltip()
+		/**
+		 * @return the width in pixels of what's drawn by onRenderTooltip
+		 */
+		float getWidth(ToIntFunction<String> stringWidth)
 		{
-			if (tooltip != null)
-			{
-				return tooltip;
-			}
-			// 9x9 icon convert to scale of blank string.
-			float scale = 2.2f;
-
-			float hungerBarsLength = (float) hungerBars * scale;
+			// the texts are drawn after the first icon, scaled by 0.75 and offset by 2 (unscaled)
+			float hungerBarsWidth = hungerBars * 9;
 			if (hungerBarsText != null)
-			{
-				hungerBarsLength += hungerBarsText.length();
-			}
+				hungerBarsWidth += 0.75f * (2 + stringWidth.applyAsInt(hungerBarsText));
 
-			float saturationBarsLength = (float) saturationBars * scale;
+			float saturationBarsWidth = saturationBars * 7;
 			if (saturationBarsText != null)
+				saturationBarsWidth += 0.75f * (2 + stringWidth.applyAsInt(saturationBarsText));
+
+			return Math.max(hungerBarsWidth, saturationBarsWidth);
+		}
+
+		/**
+		 * @return a string of spaces that is at least as wide as the overlay, and less than a space wider
+		 */
+		String getTooltip(ToIntFunction<String> stringWidth)
+		{
+			// the font can change without a resource reload (e.g. toggling Force Unicode Font)
+			int spaceWidth = Math.max(1, stringWidth.applyAsInt(" "));
+			if (tooltip != null && spaceWidth == tooltipSpaceWidth)
 			{
-				saturationBarsLength += saturationBarsText.length();
+				return tooltip;
 			}
 
-			int length = (int) Math.ceil(Math.max(hungerBarsLength, saturationBarsLength * 0.8f));
-			StringBuilder s = new StringBuilder(" ");
+			int length = (int) Math.ceil(getWidth(stringWidth) / spaceWidth);
+			StringBuilder s = new StringBuilder(length);
 			for (int i = 0; i < length; i++)
 			{
 				s.append(" ");
 			}
 
 			tooltip = s.toString();
+			tooltipSpaceWidth = spaceWidth;
 			return tooltip;
 		}
 
+		Style getStyle()
+		{
+			if (style == null)
+				style = Style.EMPTY.setFontId(new FoodOverlayFont(this));
+			return style;
+		}
+
 		boolean shouldRenderHungerBars()
 		{
 			return hungerBars > 0;
 		}
 	}
 
+	static class FoodOverlayKey
+	{
+		private FoodValues defaultFood;
+		private FoodValues modifiedFood;
+		private boolean isRotten;
+
+		void set(FoodValues defaultFood, FoodValues modifiedFood, boolean isRotten)
+		{
+			this.defaultFood = defaultFood;
+			this.modifiedFood = modifiedFood;
+			this.isRotten = isRotten;
+		}
+
+		FoodOverlayKey copy()
+		{
+			FoodOverlayKey key = new FoodOverlayKey();
+			key.set(defaultFood, modifiedFood, isRotten);
+			return key;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (!(o instanceof FoodOverlayKey)) return false;
+
+			FoodOverlayKey that = (FoodOverlayKey) o;
+
+			return isRotten == that.isRotten && Objects.equals(defaultFood, that.defaultFood) && Objects.equals(modifiedFood, that.modifiedFood);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			int result = Objects.hashCode(defaultFood);
+			result = 31 * result + Objects.hashCode(modifiedFood);
+			result = 31 * result + (isRotten ? 1 : 0);
+			return result;
+		}
+	}
+
+	// Hovering a list of items builds the same tooltips over and over (often every frame),
+	// so the finished overlays of the most recently hovered foods are kept around.
+	// What's drawn only depends on the food values and whether the food is rotten, so the
+	// overlays don't refer to any stack; the hovered stack is looked up at render time.
+	static class FoodOverlayCache
+	{
+		private static final int MAX_SIZE = 256;
+
+		private final Map<FoodOverlayKey, FoodOverlay> overlays = new LinkedHashMap<FoodOverlayKey, FoodOverlay>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<FoodOverlayKey, FoodOverlay> eldest)
+			{
+				return size() > MAX_SIZE;
+			}
+		};
+		// only used from the render thread, so a single key can be reused for every lookup
+		private final FoodOverlayKey lookupKey = new FoodOverlayKey();
+
+		private long hits = 0;
+		private long misses = 0;
+
+		FoodOverlay get(FoodValues defaultFood, FoodValues modifiedFood, boolean isRotten)
+		{
+			lookupKey.set(defaultFood, modifiedFood, isRotten);
+			FoodOverlay foodOverlay = overlays.get(lookupKey);
+			if (foodOverlay != null)
+			{
+				hits++;
+				return foodOverlay;
+			}
+
+			misses++;
+			foodOverlay = new FoodOverlay(defaultFood, modifiedFood, isRotten);
+			overlays.put(lookupKey.copy(), foodOverlay);
+			return foodOverlay;
+		}
+
+		void clear()
+		{
+			overlays.clear();
+		}
+
+		long getHits()
+		{
+			return hits;
+		}
+
+		long getMisses()
+		{
+			return misses;
+		}
+
+		int size()
+		{
+			return overlays.size();
+		}
+	}
+
+	// Where the overlay of the last built tooltip was put, so that it can be found at render time
+	// without looking at every line. Only used from the render thread.
+	private ItemStack markedStack = null;
+	private FoodOverlay markedOverlay = null;
+	private int markedLine = -1;
+
+	private void mark(ItemStack itemStack, FoodOverlay foodOverlay, int line)
+	{
+		markedStack = itemStack;
+		markedOverlay = foodOverlay;
+		markedLine = line;
+	}
+
+	private int findOverlayLine(ItemStack itemStack, List<? extends ITextProperties> lines)
+	{
+		if (itemStack == markedStack && !itemStack.isEmpty())
+		{
+			// the tooltip of this stack was built without an overlay
+			if (markedOverlay == null)
+				return -1;
+
+			if (markedLine < lines.size() && FoodOverlayFont.getFoodOverlay(lines.get(markedLine)) == markedOverlay)
+				return markedLine;
+		}
+
+		// the lines were changed after the tooltip was built (e.g. lines inserted above ours, or wrapped),
+		// or it was built some other way, so fall back to looking for the placeholder
+		for (int i = 0; i < lines.size(); ++i)
+		{
+			if (FoodOverlayFont.getFoodOverlay(lines.get(i)) != null)
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the stack whose tooltip is being rendered, which the overlay itself doesn't know about
+	 */
+	private ItemStack getHoveredStack(ItemStack renderedStack, FoodOverlay foodOverlay)
+	{
+		// tooltips rendered without going through GuiUtils.preItemToolTip don't know their stack,
+		// but if the overlay is the one added to the last built tooltip, its stack is known
+		if (renderedStack.isEmpty() && foodOverlay == markedOverlay && markedStack != null)
+			return markedStack;
+		return renderedStack;
+	}
+
+	public static String getFoodOverlayCacheDebugInfo()
+	{
+		return "appleskin tooltip cache: " + foodOverlayCache.size() + " overlays, " + foodOverlayCache.getHits() + " hits, " + foodOverlayCache.getMisses() + " misses";
+	}
+
 	@SubscribeEvent
 	public void onItemTooltip(ItemTooltipEvent event)
+	{
+		if (!isTooltipForDisplay(event))
+			return;
+
+		ProfilerSection.TOOLTIP.start();
+		try
+		{
+			addTooltip(event);
+		}
+		finally
+		{
+			ProfilerSection.TOOLTIP.end();
+		}
+	}
+
+	/**
+	 * Tooltips are also built just to index their text, thousands at a time (e.g. by the creative
+	 * search tree on join/reload). Those that are built without a player or off the render thread
+	 * will never be drawn, so the overlay (and the food events it posts) can be skipped for them.
+	 *
+	 * This doesn't catch indexing that looks like a regular tooltip build (e.g. JEI's, which happens
+	 * on the render thread with the player set). The overlay can't be built lazily at render time
+	 * instead, since its placeholder lines have to be in the tooltip by then, and whether they are
+	 * added at all depends on TooltipOverlayEvent.Pre.
+	 */
+	private static boolean isTooltipForDisplay(ItemTooltipEvent event)
+	{
+		return event.getPlayer() != null && RenderSystem.isOnRenderThread();
+	}
+
+	private void addTooltip(ItemTooltipEvent event)
 	{
 		if (event.isCanceled())
 			return;
 
 		ItemStack hoveredStack = event.getItemStack();
+		mark(hoveredStack, null, -1);
 		if (!shouldShowTooltip(hoveredStack))
 			return;
 
@@ -221,22 +440,29 @@ public class TooltipOverlayHandler
 		FoodValues defaultFood = FoodHelper.getDefaultFoodValues(hoveredStack);
 		FoodValues modifiedFood = FoodHelper.getModifiedFoodValues(hoveredStack, mc.player);
 
-		FoodValuesEvent foodValuesEvent = new FoodValuesEvent(mc.player, hoveredStack, defaultFood, modifiedFood);
-		MinecraftForge.EVENT_BUS.post(foodValuesEvent);
-		defaultFood = foodValuesEvent.defaultFoodValues;
-		modifiedFood = foodValuesEvent.modifiedFoodValues;
+		if (EventHelper.hasListeners(FoodValuesEvent.class))
+		{
+			FoodValuesEvent foodValuesEvent = new FoodValuesEvent(mc.player, hoveredStack, defaultFood, modifiedFood);
+			MinecraftForge.EVENT_BUS.post(foodValuesEvent);
+			defaultFood = foodValuesEvent.defaultFoodValues;
+			modifiedFood = foodValuesEvent.modifiedFoodValues;
+		}
 
 		// Notify everyone that we should render tooltip overlay
-		TooltipOverlayEvent.Pre prerenderEvent = new TooltipOverlayEvent.Pre(hoveredStack, defaultFood, modifiedFood);
-		MinecraftForge.EVENT_BUS.post(prerenderEvent);
-		if (prerenderEvent.isCanceled())
-			return;
+		if (EventHelper.hasListeners(TooltipOverlayEvent.Pre.class))
+		{
+			TooltipOverlayEvent.Pre prerenderEvent = new TooltipOverlayEvent.Pre(hoveredStack, defaultFood, modifiedFood);
+			MinecraftForge.EVENT_BUS.post(prerenderEvent);
+			if (prerenderEvent.isCanceled())
+				return;
+		}
 
-		FoodOverlay foodOverlay = new FoodOverlay(prerenderEvent.itemStack, defaultFood, modifiedFood, mc.player);
+		FoodOverlay foodOverlay = foodOverlayCache.get(defaultFood, modifiedFood, FoodHelper.isRotten(hoveredStack));
 		if (foodOverlay.shouldRenderHungerBars())
 		{
-			Style style = Style.EMPTY.setFontId(new FoodOverlayFont(foodOverlay));
-			StringTextComponent placeholder = new StringTextComponent(foodOverlay.getTooltip());
+			Style style = foodOverlay.getStyle();
+			StringTextComponent placeholder = new StringTextComponent(foodOverlay.getTooltip(mc.fontRenderer::getStringWidth));
+			mark(hoveredStack, foodOverlay, tooltip.size());
 			tooltip.add(placeholder.setStyle(style));
 			tooltip.add(placeholder.setStyle(style));
 		}
@@ -244,6 +470,19 @@ public class TooltipOverlayHandler
 
 	@SubscribeEvent
 	public void onRenderTooltip(RenderTooltipEvent.PostText event)
+	{
+		ProfilerSection.TOOLTIP_RENDER.start();
+		try
+		{
+			renderTooltip(event);
+		}
+		finally
+		{
+			ProfilerSection.TOOLTIP_RENDER.end();
+		}
+	}
+
+	private void renderTooltip(RenderTooltipEvent.PostText event)
 	{
 		if (event.isCanceled())
 			return;
@@ -258,36 +497,33 @@ public class TooltipOverlayHandler
 		int toolTipZ = 400; // tooltip text zLevel is 400, hardcode in GuiUtils.
 
 		// Find food overlay of text lines.
-		FoodOverlay foodOverlay = null;
 		List<? extends ITextProperties> lines = event.getLines();
-		for (int i = 0; i < lines.size(); ++i)
-		{
-			foodOverlay = FoodOverlayFont.getFoodOverlay(lines.get(i));
-			if (foodOverlay != null)
-			{
-				toolTipY += i * 10;
-				break;
-			}
-		}
+		int overlayLine = findOverlayLine(event.getStack(), lines);
 
 		// Not found overlay text lines, maybe some mods removed it.
-		if (foodOverlay == null)
+		if (overlayLine < 0)
 			return;
 
+		FoodOverlay foodOverlay = FoodOverlayFont.getFoodOverlay(lines.get(overlayLine));
+		toolTipY += overlayLine * 10;
+
 		MatrixStack matrixStack = event.getMatrixStack();
-		ItemStack itemStack = foodOverlay.itemStack;
+		ItemStack itemStack = getHoveredStack(event.getStack(), foodOverlay);
 		FoodValues defaultFood = foodOverlay.defaultFood;
 		FoodValues modifiedFood = foodOverlay.modifiedFood;
 
 		// Notify everyone that we should render tooltip overlay
-		TooltipOverlayEvent.Render renderEvent = new TooltipOverlayEvent.Render(itemStack, toolTipX, toolTipY, matrixStack, defaultFood, modifiedFood);
-		MinecraftForge.EVENT_BUS.post(renderEvent);
-		if (renderEvent.isCanceled())
-			return;
-
-		toolTipX = renderEvent.x;
-		toolTipY = renderEvent.y;
-		matrixStack = renderEvent.matrixStack;
+		if (EventHelper.hasListeners(TooltipOverlayEvent.Render.class))
+		{
+			TooltipOverlayEvent.Render renderEvent = new TooltipOverlayEvent.Render(itemStack, toolTipX, toolTipY, matrixStack, defaultFood, modifiedFood);
+			MinecraftForge.EVENT_BUS.post(renderEvent);
+			if (renderEvent.isCanceled())
+				return;
+
+			toolTipX = renderEvent.x;
+			toolTipY = renderEvent.y;
+			matrixStack = renderEvent.matrixStack;
+		}
 
 		RenderSystem.disableLighting();
 		RenderSystem.disableDepthTest();
@@ -306,35 +542,30 @@ public class TooltipOverlayHandler
 		// Render from right to left so that the icons 'face' the right way
 		x += (foodOverlay.hungerBars - 1) * 9;
 
-		mc.getTextureManager().bindTexture(AbstractGui.GUI_ICONS_LOCATION);
-		TextureOffsets offsets = FoodHelper.isRotten(itemStack) ? rottenBarTextureOffsets : normalBarTextureOffsets;
+		TextureOffsets offsets = foodOverlay.isRotten ? rottenBarTextureOffsets : normalBarTextureOffsets;
+		iconBatch.begin(matrixStack, AbstractGui.GUI_ICONS_LOCATION, gui.getBlitOffset());
 		for (int i = 0; i < foodOverlay.hungerBars * 2; i += 2)
 		{
 
 			if (modifiedHunger < 0)
-				gui.blit(matrixStack, x, y, offsets.containerNegativeHunger, 27, 9, 9);
+				iconBatch.blit(x, y, offsets.containerNegativeHunger, 27, 9, 9, 1.0F);
 			else if (modifiedHunger > defaultHunger && defaultHunger <= i)
-				gui.blit(matrixStack, x, y, offsets.containerExtraHunger, 27, 9, 9);
+				iconBatch.blit(x, y, offsets.containerExtraHunger, 27, 9, 9, 1.0F);
 			else if (modifiedHunger > i + 1 || defaultHunger == modifiedHunger)
-				gui.blit(matrixStack, x, y, offsets.containerNormalHunger, 27, 9, 9);
+				iconBatch.blit(x, y, offsets.containerNormalHunger, 27, 9, 9, 1.0F);
 			else if (modifiedHunger == i + 1)
-				gui.blit(matrixStack, x, y, offsets.containerPartialHunger, 27, 9, 9);
+				iconBatch.blit(x, y, offsets.containerPartialHunger, 27, 9, 9, 1.0F);
 			else
-			{
-				RenderSystem.color4f(1.0F, 1.0F, 1.0F, .5F);
-				gui.blit(matrixStack, x, y, offsets.containerMissingHunger, 27, 9, 9);
-				RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
-			}
+				iconBatch.blit(x, y, offsets.containerMissingHunger, 27, 9, 9, .5F);
 
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, .25F);
-			gui.blit(matrixStack, x, y, defaultHunger - 1 == i ? offsets.shankMissingPartial : offsets.shankMissingFull, 27, 9, 9);
-			RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
+			iconBatch.blit(x, y, defaultHunger - 1 == i ? offsets.shankMissingPartial : offsets.shankMissingFull, 27, 9, 9, .25F);
 
 			if (modifiedHunger > i)
-				gui.blit(matrixStack, x, y, modifiedHunger - 1 == i ? offsets.shankPartial : offsets.shankFull, 27, 9, 9);
+				iconBatch.blit(x, y, modifiedHunger - 1 == i ? offsets.shankPartial : offsets.shankFull, 27, 9, 9, 1.0F);
 
 			x -= 9;
 		}
+		iconBatch.end();
 		if (foodOverlay.hungerBarsText != null)
 		{
 			x += 18;
@@ -354,23 +585,17 @@ public class TooltipOverlayHandler
 		// Render from right to left so that the icons 'face' the right way
 		x += (foodOverlay.saturationBars - 1) * 7;
 
-		RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
-		mc.getTextureManager().bindTexture(modIcons);
+		iconBatch.begin(matrixStack, modIcons, gui.getBlitOffset());
 		for (int i = 0; i < foodOverlay.saturationBars * 2; i += 2)
 		{
 			float effectiveSaturationOfBar = (absModifiedSaturationIncrement - i) / 2f;
 
 			boolean shouldBeFaded = absModifiedSaturationIncrement <= i;
-			if (shouldBeFaded)
-				RenderSystem.color4f(1.0F, 1.0F, 1.0F, .5F);
-
-			gui.blit(matrixStack, x, y, effectiveSaturationOfBar >= 1 ? 21 : effectiveSaturationOfBar > 0.5 ? 14 : effectiveSaturationOfBar > 0.25 ? 7 : effectiveSaturationOfBar > 0 ? 0 : 28, modifiedSaturationIncrement >= 0 ? 27 : 34, 7, 7);
-
-			if (shouldBeFaded)
-				RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
+			iconBatch.blit(x, y, effectiveSaturationOfBar >= 1 ? 21 : effectiveSaturationOfBar > 0.5 ? 14 : effectiveSaturationOfBar > 0.25 ? 7 : effectiveSaturationOfBar > 0 ? 0 : 28, modifiedSaturationIncrement >= 0 ? 27 : 34, 7, 7, shouldBeFaded ? .5F : 1.0F);
 
 			x -= 7;
 		}
+		iconBatch.end();
 		if (foodOverlay.saturationBarsText != null)
 		{
 			x += 14;
@@ -398,7 +623,8 @@ public class TooltipOverlayHandler
 		if (hoveredStack.isEmpty())
 			return false;
 
-		boolean shouldShowTooltip = (ModConfig.SHOW_FOOD_VALUES_IN_TOOLTIP.get() && KeyHelper.isShiftKeyDown()) || ModConfig.ALWAYS_SHOW_FOOD_VALUES_TOOLTIP.get();
+		ModConfig.Snapshot config = ModConfig.getSnapshot();
+		boolean shouldShowTooltip = (config.showFoodValuesInTooltip && KeyHelper.isShiftKeyDown()) || config.alwaysShowFoodValuesTooltip;
 		if (!shouldShowTooltip)
 			return false;
 
@@ -0,0 +1,84 @@
+package squeek.appleskin.helpers;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.ListenerList;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+
+import java.lang.reflect.Field;
+
+public class EventHelper
+{
+	// The bus keeps one listener list per event type, shared by all buses and indexed by the bus' id.
+	// -1 if the id couldn't be found, in which case every event is assumed to have listeners.
+	private static final int forgeBusID = getBusID(MinecraftForge.EVENT_BUS);
+
+	// Looking up an event type's listener list goes through a global map, but the list itself is never
+	// replaced (later registrations are added to it), so it's only looked up once per event type
+	private static final ClassValue<ListenerList> listenerLists = new ClassValue<ListenerList>()
+	{
+		@Override
+		protected ListenerList computeValue(Class<?> eventClass)
+		{
+			return EventListenerHelper.getListenerList(eventClass);
+		}
+	};
+
+	private static int getBusID(Object bus)
+	{
+		try
+		{
+			Field busID = EventBus.class.getDeclaredField("busID");
+			busID.setAccessible(true);
+			return busID.getInt(bus);
+		}
+		catch (ReflectiveOperationException | RuntimeException e)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * Posts the event on MinecraftForge.EVENT_BUS, unless it has no listeners
+	 *
+	 * @return true if the event was canceled
+	 */
+	public static boolean post(Event event)
+	{
+		if (!hasListeners(event.getClass()))
+			return event.isCancelable() && event.isCanceled();
+
+		return MinecraftForge.EVENT_BUS.post(event);
+	}
+
+	/**
+	 * @return false if posting the event on MinecraftForge.EVENT_BUS would not call any listener,
+	 * including listeners of its super classes
+	 */
+	public static boolean hasListeners(Class<? extends Event> eventClass)
+	{
+		if (forgeBusID < 0)
+			return true;
+
+		IEventListener[] listeners;
+		try
+		{
+			listeners = listenerLists.get(eventClass).getListeners(forgeBusID);
+		}
+		catch (RuntimeException e)
+		{
+			return true;
+		}
+
+		// the priorities themselves are in the list, to mark where each priority starts
+		for (IEventListener listener : listeners)
+		{
+			if (!(listener instanceof EventPriority))
+				return true;
+		}
+		return false;
+	}
+}
@@ -1,17 +1,22 @@
 package squeek.appleskin.helpers;
 
-import com.mojang.datafixers.util.Pair;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.item.Food;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.potion.EffectInstance;
-import net.minecraft.potion.EffectType;
-import net.minecraft.potion.Effects;
 import net.minecraft.util.FoodStats;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
+import net.minecraftforge.registries.ForgeRegistries;
+import squeek.appleskin.AppleSkin;
 import squeek.appleskin.api.food.FoodValues;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
 public class FoodHelper
 {
 	public static boolean isFood(ItemStack itemStack)
@@ -19,26 +24,70 @@ public class FoodHelper
 		return itemStack.getItem().getFood() != null;
 	}
 
+	// Item doesn't override equals/hashCode, so this is effectively an identity map.
+	// Replaced rather than cleared, so that a precomputation that is still running
+	// can't put outdated profiles into the new map.
+	private static volatile Map<Item, FoodProfile> foodProfiles = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the cached profile of the item, or null if the item is not a food
+	 */
+	public static FoodProfile getFoodProfile(Item item)
+	{
+		Map<Item, FoodProfile> profiles = foodProfiles;
+		FoodProfile profile = profiles.get(item);
+		if (profile == null)
+		{
+			profile = FoodProfile.create(item);
+			profiles.put(item, profile);
+		}
+		return profile != FoodProfile.NOT_FOOD ? profile : null;
+	}
+
+	/**
+	 * Food properties can be changed by data (e.g. through tags), so the cached
+	 * profiles need to be rebuilt whenever that gets reloaded.
+	 */
+	public static void clearFoodProfiles()
+	{
+		foodProfiles = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Builds the profiles of every registered item in the background, so that
+	 * they aren't built on the render thread the first time each food is shown.
+	 * Profiles that are requested before this is done are built as usual.
+	 */
+	public static CompletableFuture<Void> precomputeFoodProfiles()
+	{
+		Map<Item, FoodProfile> profiles = foodProfiles;
+		List<Item> items = new ArrayList<>(ForgeRegistries.ITEMS.getValues());
+		return CompletableFuture.runAsync(() -> {
+			try
+			{
+				items.parallelStream().forEach(item -> profiles.computeIfAbsent(item, FoodProfile::create));
+			}
+			catch (RuntimeException e)
+			{
+				AppleSkin.Log.warn("Unable to precompute food profiles", e);
+			}
+		}, ForkJoinPool.commonPool());
+	}
+
 	public static boolean canConsume(ItemStack itemStack, PlayerEntity player)
 	{
 		// item is not a food that can be consume
-		if (!isFood(itemStack))
-			return false;
-
-		Food itemFood = itemStack.getItem().getFood();
-		if (itemFood == null)
+		FoodProfile profile = getFoodProfile(itemStack.getItem());
+		if (profile == null)
 			return false;
 
-		return player.canEat(itemFood.canEatWhenFull());
+		return player.canEat(profile.canEatWhenFull);
 	}
 
 	public static FoodValues getDefaultFoodValues(ItemStack itemStack)
 	{
-		Food itemFood = itemStack.getItem().getFood();
-		int hunger = itemFood != null ? itemFood.getHealing() : 0;
-		float saturationModifier = itemFood != null ? itemFood.getSaturation() : 0;
-
-		return new FoodValues(hunger, saturationModifier);
+		FoodProfile profile = getFoodProfile(itemStack.getItem());
+		return profile != null ? profile.defaultFoodValues : FoodProfile.NOT_FOOD.defaultFoodValues;
 	}
 
 	public static FoodValues getModifiedFoodValues(ItemStack itemStack, PlayerEntity player)
@@ -51,22 +100,14 @@ public class FoodHelper
 
 	public static boolean isRotten(ItemStack itemStack)
 	{
-		if (!isFood(itemStack))
-			return false;
-
-		for (Pair<EffectInstance, Float> effect : itemStack.getItem().getFood().getEffects())
-		{
-			if (effect.getFirst() != null && effect.getFirst().getPotion() != null && effect.getFirst().getPotion().getEffectType() == EffectType.HARMFUL)
-			{
-				return true;
-			}
-		}
-		return false;
+		FoodProfile profile = getFoodProfile(itemStack.getItem());
+		return profile != null && profile.isRotten;
 	}
 
 	public static float getEstimatedHealthIncrement(ItemStack itemStack, FoodValues modifiedFoodValues, PlayerEntity player)
 	{
-		if (!isFood(itemStack))
+		FoodProfile profile = getFoodProfile(itemStack.getItem());
+		if (profile == null)
 			return 0;
 
 		if (!player.shouldHeal())
@@ -87,87 +128,164 @@ public class FoodHelper
 		}
 
 		// health for regeneration effect
-		for (Pair<EffectInstance, Float> effect : itemStack.getItem().getFood().getEffects())
-		{
-			EffectInstance effectInstance = effect.getFirst();
-			if (effectInstance != null && effectInstance.getPotion() == Effects.REGENERATION)
-			{
-				int amplifier = effectInstance.getAmplifier();
-				int duration = effectInstance.getDuration();
-
-				// Refer: https://minecraft.fandom.com/wiki/Regeneration
-				// Refer: net.minecraft.world.effect.MobEffect.isDurationEffectTick
-				healthIncrement += (float) Math.floor(duration / Math.max(50 >> amplifier, 1));
-				break;
-			}
-		}
+		healthIncrement += getRegenEffectHealthIncrement(profile);
 
 		return healthIncrement;
 	}
 
+	public static float getRegenEffectHealthIncrement(FoodProfile profile)
+	{
+		if (!profile.hasRegen())
+			return 0;
+
+		int amplifier = profile.regenAmplifier;
+		int duration = profile.regenDuration;
+
+		// Refer: https://minecraft.fandom.com/wiki/Regeneration
+		// Refer: net.minecraft.world.effect.MobEffect.isDurationEffectTick
+		return (float) Math.floor(duration / Math.max(50 >> amplifier, 1));
+	}
+
 	public static float REGEN_EXHAUSTION_INCREMENT = 6.0F;
 	public static float MAX_EXHAUSTION = 4.0F;
 
+	/*
+	 * Estimates the health that natural regeneration would restore before hunger drops below 18.
+	 *
+	 * This used to simulate regen one step at a time; it now jumps straight to the end of each
+	 * stretch where every regen step adds the same exhaustion (slow regen, and fast regen while there's
+	 * at least REGEN_EXHAUSTION_INCREMENT saturation), so the cost no longer depends on the input.
+	 * Only the last few points of saturation (at most REGEN_EXHAUSTION_INCREMENT of them) are stepped
+	 * through, since each of those regens a different amount.
+	 *
+	 * The first two steps of each stretch are still done with float arithmetic, which is where
+	 * float rounding can decide whether exhaustion ends up exactly at a multiple of MAX_EXHAUSTION.
+	 * After those steps the remaining exhaustion is exactly representable, so the result matches the
+	 * step-by-step simulation to within float accumulation error. The exception is saturation below
+	 * ~1e-9, where the old simulation's iteration count overflowed and it drifted (or never finished),
+	 * which can differ by at most one slow regen step.
+	 */
 	public static float getEstimatedHealthIncrement(int foodLevel, float saturationLevel, float exhaustionLevel)
 	{
-		float health = 0;
-
 		if (!Float.isFinite(exhaustionLevel) || !Float.isFinite(saturationLevel))
 			return 0;
 
-		while (foodLevel >= 18)
+		if (foodLevel < 18)
+			return 0;
+
+		RegenEstimate estimate = new RegenEstimate(exhaustionLevel);
+
+		// Each time exhaustion goes above max, a point of saturation is used up (or whatever
+		// is left of it), and once saturation is gone, a point of hunger
+		long saturationConsumptions = saturationLevel > 0 ? (long) Math.ceil(saturationLevel) : 0;
+
+		// Without this Float.compare, it's possible for fast regen to never reach max exhaustion
+		// if saturationLevel is small enough that exhaustionLevel does not actually change representation
+		// when it's incremented. This Float.compare makes it so we treat such close-to-zero values as zero.
+		if (foodLevel >= 20 && Float.compare(saturationLevel, Float.MIN_NORMAL) > 0)
+		{
+			// fast regen health, while there's enough saturation for every step to be the same
+			long consumptionsUntilPartialRegen = (long) Math.floor(saturationLevel - REGEN_EXHAUSTION_INCREMENT) + 1;
+			estimate.regenUntil(consumptionsUntilPartialRegen, REGEN_EXHAUSTION_INCREMENT);
+
+			// fast regen health, for the last few points of saturation
+			while (estimate.consumptions < saturationConsumptions)
+			{
+				float limitedSaturationLevel = Math.min(saturationLevel - estimate.consumptions, REGEN_EXHAUSTION_INCREMENT);
+				estimate.fastRegen(limitedSaturationLevel);
+			}
+		}
+
+		// slow regen health, until hunger drops below 18
+		estimate.regenUntil(foodLevel - 17 + saturationConsumptions, REGEN_EXHAUSTION_INCREMENT);
+
+		return estimate.health;
+	}
+
+	private static final class RegenEstimate
+	{
+		float health = 0;
+		// the number of times MAX_EXHAUSTION has been taken off of exhaustion so far
+		long consumptions = 0;
+		float exhaustion;
+
+		RegenEstimate(float exhaustionLevel)
 		{
-			while (exhaustionLevel > MAX_EXHAUSTION)
+			exhaustion = exhaustionLevel;
+			consume();
+		}
+
+		void consume()
+		{
+			if (exhaustion > MAX_EXHAUSTION)
 			{
-				exhaustionLevel -= MAX_EXHAUSTION;
-				if (saturationLevel > 0)
-					saturationLevel = Math.max(saturationLevel - 1, 0);
-				else
-					foodLevel -= 1;
+				long numConsumptions = (long) Math.ceil((exhaustion - MAX_EXHAUSTION) / MAX_EXHAUSTION);
+				exhaustion -= numConsumptions * MAX_EXHAUSTION;
+				consumptions += numConsumptions;
 			}
-			// Without this Float.compare, it's possible for this function to get stuck in an infinite loop
-			// if saturationLevel is small enough that exhaustionLevel does not actually change representation
-			// when it's incremented. This Float.compare makes it so we treat such close-to-zero values as zero.
-			if (foodLevel >= 20 && Float.compare(saturationLevel, Float.MIN_NORMAL) > 0)
+		}
+
+		/**
+		 * Regen with less than REGEN_EXHAUSTION_INCREMENT saturation, until exhaustion goes above max.
+		 */
+		void fastRegen(float limitedSaturationLevel)
+		{
+			do
 			{
-				// fast regen health
-				//
-				// Because only health and exhaustionLevel increase in this branch,
-				// we know that we will enter this branch again and again on each iteration
-				// if exhaustionLevel is not incremented above MAX_EXHAUSTION before the
-				// next iteration.
-				//
-				// So, instead of actually performing those iterations, we can calculate
-				// the number of iterations it would take to reach max exhaustion, and
-				// add all the health/exhaustion in one go. In practice, this takes the
-				// worst-case number of iterations performed in this function from the millions
-				// all the way down to around 18.
-				//
-				// Note: Due to how floating point works, the results of actually doing the
-				// iterations and 'simulating' them using multiplication will differ. That is, small increments
-				// in a loop can end up with a different (and higher) final result than multiplication
-				// due to floating point rounding. In degenerate cases, the difference can be fairly high
-				// (when testing, I found a case that had a difference of ~0.3), but this isn't a concern in
-				// this particular instance because the 'real' difference as seen by the player
-				// would likely take hundreds of thousands of ticks to materialize (since the
-				// `limitedSaturationLevel / REGEN_EXHAUSTION_INCREMENT` value must be very
-				// small for a difference to occur at all, and therefore numIterationsUntilAboveMax would
-				// be very large).
-				float limitedSaturationLevel = Math.min(saturationLevel, REGEN_EXHAUSTION_INCREMENT);
-				float exhaustionUntilAboveMax = Math.nextUp(MAX_EXHAUSTION) - exhaustionLevel;
-				int numIterationsUntilAboveMax = Math.max(1, (int) Math.ceil(exhaustionUntilAboveMax / limitedSaturationLevel));
+				float exhaustionUntilAboveMax = Math.nextUp(MAX_EXHAUSTION) - exhaustion;
+				float numIterationsUntilAboveMax = Math.max(1, (float) Math.ceil(exhaustionUntilAboveMax / limitedSaturationLevel));
+
+				// saturation just above Float.MIN_NORMAL can need more iterations than a float can hold,
+				// in which case all of them together regen what's left until max exhaustion
+				if (Float.isInfinite(numIterationsUntilAboveMax))
+				{
+					health += exhaustionUntilAboveMax / REGEN_EXHAUSTION_INCREMENT;
+					exhaustion = Math.nextUp(MAX_EXHAUSTION);
+					break;
+				}
+
+				float newExhaustion = exhaustion + limitedSaturationLevel * numIterationsUntilAboveMax;
+
+				// treat increments too small to change exhaustion at all as reaching max exhaustion
+				if (newExhaustion == exhaustion)
+					newExhaustion = Math.nextUp(MAX_EXHAUSTION);
 
 				health += (limitedSaturationLevel / REGEN_EXHAUSTION_INCREMENT) * numIterationsUntilAboveMax;
-				exhaustionLevel += limitedSaturationLevel * numIterationsUntilAboveMax;
+				exhaustion = newExhaustion;
 			}
-			else if (foodLevel >= 18)
+			while (exhaustion <= MAX_EXHAUSTION);
+
+			consume();
+		}
+
+		/**
+		 * Regen in steps of exhaustionIncrement until MAX_EXHAUSTION has been taken off targetConsumptions times.
+		 */
+		void regenUntil(long targetConsumptions, float exhaustionIncrement)
+		{
+			// exhaustion only alternates between two values within a stretch (it goes up by 6 and down by 4 or 8),
+			// so after two float steps any rounding has already happened and the rest can be done in one go
+			for (int i = 0; i < 2; ++i)
 			{
-				// slow regen health
-				health += 1;
-				exhaustionLevel += REGEN_EXHAUSTION_INCREMENT;
+				if (consumptions >= targetConsumptions)
+					return;
+
+				health += exhaustionIncrement / REGEN_EXHAUSTION_INCREMENT;
+				exhaustion += exhaustionIncrement;
+				consume();
 			}
-		}
 
-		return health;
+			if (consumptions >= targetConsumptions)
+				return;
+
+			double exhaustionUntilTarget = (targetConsumptions - consumptions) * (double) MAX_EXHAUSTION - exhaustion;
+			long numIterations = (long) Math.floor(exhaustionUntilTarget / exhaustionIncrement) + 1;
+			double totalExhaustion = exhaustion + numIterations * (double) exhaustionIncrement;
+			long numConsumptions = (long) Math.ceil((totalExhaustion - MAX_EXHAUSTION) / MAX_EXHAUSTION);
+
+			health += numIterations * (exhaustionIncrement / REGEN_EXHAUSTION_INCREMENT);
+			exhaustion = (float) (totalExhaustion - numConsumptions * (double) MAX_EXHAUSTION);
+			consumptions += numConsumptions;
+		}
 	}
 }
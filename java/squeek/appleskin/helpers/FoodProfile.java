@@ -0,0 +1,68 @@
+package squeek.appleskin.helpers;
+
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.item.Food;
+import net.minecraft.item.Item;
+import net.minecraft.potion.EffectInstance;
+import net.minecraft.potion.EffectType;
+import net.minecraft.potion.Effects;
+import squeek.appleskin.api.food.FoodValues;
+
+/**
+ * Everything FoodHelper needs to know about a food item, computed once per Item
+ * instead of walking its Food and effect list on every call.
+ */
+public final class FoodProfile
+{
+	static final FoodProfile NOT_FOOD = new FoodProfile(new FoodValues(0, 0), false, false, -1, 0);
+
+	public final FoodValues defaultFoodValues;
+	public final boolean canEatWhenFull;
+	public final boolean isRotten;
+	// -1 if the food doesn't give regeneration
+	public final int regenAmplifier;
+	public final int regenDuration;
+
+	private FoodProfile(FoodValues defaultFoodValues, boolean canEatWhenFull, boolean isRotten, int regenAmplifier, int regenDuration)
+	{
+		this.defaultFoodValues = defaultFoodValues;
+		this.canEatWhenFull = canEatWhenFull;
+		this.isRotten = isRotten;
+		this.regenAmplifier = regenAmplifier;
+		this.regenDuration = regenDuration;
+	}
+
+	public boolean hasRegen()
+	{
+		return regenAmplifier >= 0;
+	}
+
+	static FoodProfile create(Item item)
+	{
+		Food itemFood = item.getFood();
+		if (itemFood == null)
+			return NOT_FOOD;
+
+		boolean isRotten = false;
+		int regenAmplifier = -1;
+		int regenDuration = 0;
+		for (Pair<EffectInstance, Float> effect : itemFood.getEffects())
+		{
+			EffectInstance effectInstance = effect.getFirst();
+			if (effectInstance == null || effectInstance.getPotion() == null)
+				continue;
+
+			if (effectInstance.getPotion().getEffectType() == EffectType.HARMFUL)
+				isRotten = true;
+
+			if (regenAmplifier < 0 && effectInstance.getPotion() == Effects.REGENERATION)
+			{
+				regenAmplifier = effectInstance.getAmplifier();
+				regenDuration = effectInstance.getDuration();
+			}
+		}
+
+		FoodValues defaultFoodValues = new FoodValues(itemFood.getHealing(), itemFood.getSaturation());
+		return new FoodProfile(defaultFoodValues, itemFood.canEatWhenFull(), isRotten, regenAmplifier, regenDuration);
+	}
+}
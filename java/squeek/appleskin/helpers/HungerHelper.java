@@ -5,23 +5,57 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.util.FoodStats;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 
 public class HungerHelper
 {
 	protected static final Field foodExhaustion;
 
+	// Held in static finals so the JIT can treat them as constants and inline them down to a plain field access.
+	// They are only null if the handles could not be created, in which case the reflective Field is used instead.
+	private static final MethodHandle foodExhaustionGetter;
+	private static final MethodHandle foodExhaustionSetter;
+
 	static
 	{
 		try
 		{
-			foodExhaustion = FoodStats.class.getDeclaredField(ObfuscationReflectionHelper.remapName(INameMappingService.Domain.FIELD, "field_75126_c"));
+			foodExhaustion = FoodStats.class.getDeclaredField(getFoodExhaustionFieldName());
 			foodExhaustion.setAccessible(true);
 		}
 		catch (NoSuchFieldException e)
 		{
 			throw new RuntimeException(e);
 		}
+
+		MethodHandle getter = null;
+		MethodHandle setter = null;
+		try
+		{
+			getter = MethodHandles.lookup().unreflectGetter(foodExhaustion);
+			setter = MethodHandles.lookup().unreflectSetter(foodExhaustion);
+		}
+		catch (IllegalAccessException e)
+		{
+			// fall back to the reflective Field
+		}
+		foodExhaustionGetter = getter;
+		foodExhaustionSetter = setter;
+	}
+
+	private static String getFoodExhaustionFieldName()
+	{
+		try
+		{
+			return ObfuscationReflectionHelper.remapName(INameMappingService.Domain.FIELD, "field_75126_c");
+		}
+		catch (RuntimeException e)
+		{
+			// not running under the mod launcher (e.g. the benchmarks), so the classes use the dev environment's names
+			return "foodExhaustionLevel";
+		}
 	}
 
 	public static float getMaxExhaustion(PlayerEntity player)
@@ -29,25 +63,113 @@ public class HungerHelper
 		return 4.0f;
 	}
 
+	/*
+	 * What the HUD can actually display, so that the server doesn't sync changes nobody can see
+	 */
+	public static final int EXHAUSTION_BAR_WIDTH = 81;
+
+	/**
+	 * @return the width in pixels of the exhaustion underlay for the given exhaustion
+	 */
+	public static int getExhaustionBarWidth(float exhaustion, float maxExhaustion)
+	{
+		// clamp between 0 and 1
+		float ratio = Math.min(1, Math.max(0, exhaustion / maxExhaustion));
+		return (int) (ratio * EXHAUSTION_BAR_WIDTH);
+	}
+
+	/**
+	 * @return the smallest change in exhaustion that moves the exhaustion underlay by a pixel
+	 */
+	public static float getExhaustionDisplayStep(float maxExhaustion)
+	{
+		return maxExhaustion / EXHAUSTION_BAR_WIDTH;
+	}
+
+	/**
+	 * The saturation overlay draws one icon per 2 saturation, and each icon can show
+	 * a quarter, half, three quarters or a full icon.
+	 *
+	 * @return a value that only changes when the displayed saturation overlay would change
+	 */
+	public static int getSaturationDisplayStep(float saturationLevel)
+	{
+		float bars = Math.max(0, Math.min(saturationLevel, 20)) / 2.0F;
+		int fullBars = (int) bars;
+		float partialBar = bars - fullBars;
+
+		int partialStep;
+		if (partialBar == 0)
+			partialStep = 0;
+		else if (partialBar <= .25)
+			partialStep = 1;
+		else if (partialBar <= .5)
+			partialStep = 2;
+		else
+			partialStep = 3;
+
+		return fullBars * 4 + partialStep;
+	}
+
+	// The client counts its own ticks and the server counts server ticks, which drift apart whenever
+	// the server runs below 20 TPS. So while the client is extrapolating, the server re-sends the
+	// value and rate at least this often, and each prediction only runs a little past that
+	// (the longest wait for a player's sync tick is a second) before it stops advancing.
+	public static final int EXHAUSTION_PREDICTION_REFRESH_TICKS = 20;
+	public static final int MAX_EXHAUSTION_PREDICTION_TICKS = EXHAUSTION_PREDICTION_REFRESH_TICKS + 20;
+
+	/**
+	 * Extrapolates exhaustion from the last synced value and rate. This is used by both the server
+	 * and the client, so the server can estimate what the client is displaying and send
+	 * a correction once the prediction is off by too much.
+	 */
+	public static float getPredictedExhaustion(float exhaustion, float exhaustionRate, int elapsedTicks, float maxExhaustion)
+	{
+		if (exhaustionRate <= 0 || elapsedTicks <= 0)
+			return exhaustion;
+
+		float predicted = exhaustion + exhaustionRate * Math.min(elapsedTicks, MAX_EXHAUSTION_PREDICTION_TICKS);
+		// vanilla takes max exhaustion off (and reduces saturation/hunger) whenever it is exceeded
+		if (predicted > maxExhaustion)
+			predicted -= maxExhaustion * (float) Math.ceil((predicted - maxExhaustion) / maxExhaustion);
+		return predicted;
+	}
+
 	public static float getExhaustion(PlayerEntity player)
+	{
+		return getExhaustion(player.getFoodStats());
+	}
+
+	public static float getExhaustion(FoodStats foodStats)
 	{
 		try
 		{
-			return foodExhaustion.getFloat(player.getFoodStats());
+			if (foodExhaustionGetter != null)
+				return (float) foodExhaustionGetter.invokeExact(foodStats);
+
+			return foodExhaustion.getFloat(foodStats);
 		}
-		catch (IllegalAccessException e)
+		catch (Throwable e)
 		{
 			throw new RuntimeException(e);
 		}
 	}
 
 	public static void setExhaustion(PlayerEntity player, float exhaustion)
+	{
+		setExhaustion(player.getFoodStats(), exhaustion);
+	}
+
+	public static void setExhaustion(FoodStats foodStats, float exhaustion)
 	{
 		try
 		{
-			foodExhaustion.setFloat(player.getFoodStats(), exhaustion);
+			if (foodExhaustionSetter != null)
+				foodExhaustionSetter.invokeExact(foodStats, exhaustion);
+			else
+				foodExhaustion.setFloat(foodStats, exhaustion);
 		}
-		catch (IllegalAccessException e)
+		catch (Throwable e)
 		{
 			throw new RuntimeException(e);
 		}
@@ -0,0 +1,208 @@
+package squeek.appleskin.helpers;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.registries.ForgeRegistries;
+import squeek.appleskin.api.food.FoodIndex;
+import squeek.appleskin.api.food.FoodValues;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The index is built from the cached FoodProfiles (so after FoodHelper.precomputeFoodProfiles
+ * it costs one sort per key), the first time it's queried after being invalidated.
+ * A build is only published if the index wasn't invalidated while it was running,
+ * so a build that started before a reload can't replace the reloaded one.
+ */
+public class SortedFoodIndex implements FoodIndex
+{
+	public static final SortedFoodIndex INSTANCE = new SortedFoodIndex();
+
+	private static final SortKey[] SORT_KEYS = SortKey.values();
+
+	private final Object buildLock = new Object();
+	private volatile int generation = 0;
+	private volatile Tables tables = null;
+
+	private static final class Tables
+	{
+		final Map<Item, Entry> entries = new IdentityHashMap<>();
+		// per sort key, best first
+		final List<List<Entry>> sortedEntries = new ArrayList<>(SORT_KEYS.length);
+		// per item, its rank for each sort key
+		final Map<Item, int[]> ranks = new IdentityHashMap<>();
+
+		Tables(List<Entry> foods)
+		{
+			for (Entry entry : foods)
+			{
+				entries.put(entry.item, entry);
+				ranks.put(entry.item, new int[SORT_KEYS.length]);
+			}
+
+			for (SortKey sortKey : SORT_KEYS)
+			{
+				// stable, so foods with the same value stay in registry order
+				List<Entry> sorted = new ArrayList<>(foods);
+				sorted.sort(getEntryComparator(sortKey));
+				for (int i = 0; i < sorted.size(); i++)
+					ranks.get(sorted.get(i).item)[sortKey.ordinal()] = i;
+				sortedEntries.add(Collections.unmodifiableList(sorted));
+			}
+		}
+	}
+
+	private static Comparator<Entry> getEntryComparator(SortKey sortKey)
+	{
+		switch (sortKey)
+		{
+			case HUNGER:
+				return (a, b) -> Integer.compare(b.defaultFoodValues.hunger, a.defaultFoodValues.hunger);
+			case SATURATION_INCREMENT:
+				return (a, b) -> Float.compare(b.defaultFoodValues.getSaturationIncrement(), a.defaultFoodValues.getSaturationIncrement());
+			case SATURATION_MODIFIER:
+				return (a, b) -> Float.compare(b.defaultFoodValues.saturationModifier, a.defaultFoodValues.saturationModifier);
+			case ESTIMATED_HEALTH:
+				return (a, b) -> Float.compare(b.estimatedHealthIncrement, a.estimatedHealthIncrement);
+			default:
+				throw new IllegalArgumentException("Unknown sort key " + sortKey);
+		}
+	}
+
+	private static Entry createEntry(Item item, FoodProfile profile)
+	{
+		FoodValues foodValues = profile.defaultFoodValues;
+		int foodLevel = 20;
+		float saturationLevel = Math.max(0, Math.min(foodValues.getSaturationIncrement(), (float) foodLevel));
+		float estimatedHealth = FoodHelper.getEstimatedHealthIncrement(foodLevel, saturationLevel, 0) + FoodHelper.getRegenEffectHealthIncrement(profile);
+		return new Entry(item, foodValues, profile.isRotten, estimatedHealth);
+	}
+
+	/**
+	 * Drops the current index, to be rebuilt from the (reloaded) food profiles when it's next needed
+	 */
+	public void invalidate()
+	{
+		synchronized (buildLock)
+		{
+			generation++;
+			tables = null;
+		}
+	}
+
+	/**
+	 * Builds the index now (e.g. in the background), instead of on the next query
+	 */
+	public void build()
+	{
+		getTables();
+	}
+
+	private Tables getTables()
+	{
+		Tables current = tables;
+		if (current != null)
+			return current;
+
+		int buildGeneration = generation;
+		List<Entry> foods = new ArrayList<>();
+		for (Item item : ForgeRegistries.ITEMS.getValues())
+		{
+			FoodProfile profile = FoodHelper.getFoodProfile(item);
+			if (profile != null)
+				foods.add(createEntry(item, profile));
+		}
+		Tables built = new Tables(foods);
+
+		synchronized (buildLock)
+		{
+			if (tables == null && generation == buildGeneration)
+				tables = built;
+		}
+		return built;
+	}
+
+	@Override
+	public List<Entry> getFoods(SortKey sortKey)
+	{
+		return getTables().sortedEntries.get(sortKey.ordinal());
+	}
+
+	@Override
+	public Entry getEntry(Item item)
+	{
+		return getTables().entries.get(item);
+	}
+
+	@Override
+	public int getRank(Item item, SortKey sortKey)
+	{
+		int[] ranks = getTables().ranks.get(item);
+		return ranks != null ? ranks[sortKey.ordinal()] : -1;
+	}
+
+	@Override
+	public List<ItemStack> getBestFoods(Iterable<ItemStack> stacks, SortKey sortKey, int limit)
+	{
+		Tables current = getTables();
+		List<ItemStack> foods = new ArrayList<>();
+		for (ItemStack stack : stacks)
+		{
+			if (!stack.isEmpty() && current.ranks.containsKey(stack.getItem()))
+				foods.add(stack);
+		}
+
+		int keyIndex = sortKey.ordinal();
+		foods.sort(Comparator.comparingInt(stack -> current.ranks.get(stack.getItem())[keyIndex]));
+		return foods.size() > limit ? new ArrayList<>(foods.subList(0, Math.max(limit, 0))) : foods;
+	}
+
+	@Override
+	public Entry getSmallestFoodToFill(int hunger)
+	{
+		// sorted by hunger from most to least, so find the last entry with enough hunger
+		List<Entry> byHunger = getFoods(SortKey.HUNGER);
+		int low = 0;
+		int high = byHunger.size();
+		while (low < high)
+		{
+			int mid = (low + high) >>> 1;
+			if (byHunger.get(mid).defaultFoodValues.hunger >= hunger)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low > 0 ? byHunger.get(low - 1) : null;
+	}
+
+	@Override
+	public ItemStack getSmallestFoodToFill(Iterable<ItemStack> stacks, int hunger)
+	{
+		Tables current = getTables();
+		ItemStack smallest = ItemStack.EMPTY;
+		int smallestRank = -1;
+		for (ItemStack stack : stacks)
+		{
+			if (stack.isEmpty())
+				continue;
+
+			Entry entry = current.entries.get(stack.getItem());
+			if (entry == null || entry.defaultFoodValues.hunger < hunger)
+				continue;
+
+			// a bigger rank by hunger means less hunger
+			int rank = current.ranks.get(entry.item)[SortKey.HUNGER.ordinal()];
+			if (rank > smallestRank)
+			{
+				smallest = stack;
+				smallestRank = rank;
+			}
+		}
+		return smallest;
+	}
+}
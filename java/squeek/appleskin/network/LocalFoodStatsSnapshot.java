@@ -0,0 +1,40 @@
+package squeek.appleskin.network;
+
+/**
+ * Food stats of the player hosting an integrated server (singleplayer or LAN host).
+ *
+ * The integrated server and the client share a JVM, so instead of serializing these values
+ * into packets, the server thread publishes an immutable snapshot that the client thread
+ * picks up directly.
+ */
+public final class LocalFoodStatsSnapshot
+{
+	private static volatile LocalFoodStatsSnapshot current = null;
+
+	public final float saturationLevel;
+	public final float exhaustionLevel;
+
+	private LocalFoodStatsSnapshot(float saturationLevel, float exhaustionLevel)
+	{
+		this.saturationLevel = saturationLevel;
+		this.exhaustionLevel = exhaustionLevel;
+	}
+
+	/**
+	 * @return the latest snapshot, or null if the client isn't the host of an integrated server
+	 */
+	public static LocalFoodStatsSnapshot getCurrent()
+	{
+		return current;
+	}
+
+	static void publish(float saturationLevel, float exhaustionLevel)
+	{
+		current = new LocalFoodStatsSnapshot(saturationLevel, exhaustionLevel);
+	}
+
+	static void clear()
+	{
+		current = null;
+	}
+}
@@ -0,0 +1,119 @@
+package squeek.appleskin.network;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+import squeek.appleskin.client.ExhaustionPredictor;
+import squeek.appleskin.helpers.HungerHelper;
+
+import java.util.function.Supplier;
+
+public class MessageFoodStatsSync
+{
+	public static final int SATURATION = 1;
+	public static final int EXHAUSTION = 1 << 1;
+
+	// Values are sent as fixed-point shorts with two decimal places, which is
+	// well below what the HUD can display and matches the precision of the F3 readout
+	private static final float FIXED_POINT_SCALE = 100f;
+	// The rate is per tick, so it needs a lot more precision (sprinting is ~0.03 per tick)
+	private static final float RATE_FIXED_POINT_SCALE = 10000f;
+	static final float MAX_EXHAUSTION_RATE = Short.MAX_VALUE / RATE_FIXED_POINT_SCALE;
+
+	int changedFields;
+	float saturationLevel;
+	float exhaustionLevel;
+	float exhaustionRate;
+
+	public MessageFoodStatsSync(int changedFields, float saturationLevel, float exhaustionLevel, float exhaustionRate)
+	{
+		this.changedFields = changedFields;
+		this.saturationLevel = saturationLevel;
+		this.exhaustionLevel = exhaustionLevel;
+		this.exhaustionRate = exhaustionRate;
+	}
+
+	public int getEncodedSize()
+	{
+		int size = 1;
+		if ((changedFields & SATURATION) != 0)
+			size += 2;
+		if ((changedFields & EXHAUSTION) != 0)
+			size += 4;
+		return size;
+	}
+
+	public static void encode(MessageFoodStatsSync pkt, PacketBuffer buf)
+	{
+		buf.writeByte(pkt.changedFields);
+		if ((pkt.changedFields & SATURATION) != 0)
+			buf.writeShort(toFixedPoint(pkt.saturationLevel));
+		if ((pkt.changedFields & EXHAUSTION) != 0)
+		{
+			buf.writeShort(toFixedPoint(pkt.exhaustionLevel));
+			buf.writeShort(toFixedPoint(pkt.exhaustionRate, RATE_FIXED_POINT_SCALE));
+		}
+	}
+
+	public static MessageFoodStatsSync decode(PacketBuffer buf)
+	{
+		int changedFields = buf.readUnsignedByte();
+		float saturationLevel = (changedFields & SATURATION) != 0 ? fromFixedPoint(buf.readShort()) : 0;
+		float exhaustionLevel = 0;
+		float exhaustionRate = 0;
+		if ((changedFields & EXHAUSTION) != 0)
+		{
+			exhaustionLevel = fromFixedPoint(buf.readShort());
+			exhaustionRate = fromFixedPoint(buf.readShort(), RATE_FIXED_POINT_SCALE);
+		}
+		return new MessageFoodStatsSync(changedFields, saturationLevel, exhaustionLevel, exhaustionRate);
+	}
+
+	public static void handle(final MessageFoodStatsSync message, Supplier<NetworkEvent.Context> ctx)
+	{
+		ctx.get().enqueueWork(() -> {
+			PlayerEntity player = NetworkHelper.getSidedPlayer(ctx.get());
+			if ((message.changedFields & SATURATION) != 0)
+				player.getFoodStats().setFoodSaturationLevel(message.saturationLevel);
+			if ((message.changedFields & EXHAUSTION) != 0)
+			{
+				HungerHelper.setExhaustion(player, message.exhaustionLevel);
+				ExhaustionPredictor.onExhaustionSync(player, message.exhaustionLevel, message.exhaustionRate);
+			}
+		});
+		ctx.get().setPacketHandled(true);
+	}
+
+	/**
+	 * @return the value as the client will see it after encoding and decoding
+	 */
+	static float quantize(float value)
+	{
+		return fromFixedPoint((short) toFixedPoint(value));
+	}
+
+	static float quantizeRate(float value)
+	{
+		return fromFixedPoint((short) toFixedPoint(value, RATE_FIXED_POINT_SCALE), RATE_FIXED_POINT_SCALE);
+	}
+
+	static int toFixedPoint(float value)
+	{
+		return toFixedPoint(value, FIXED_POINT_SCALE);
+	}
+
+	static float fromFixedPoint(short value)
+	{
+		return fromFixedPoint(value, FIXED_POINT_SCALE);
+	}
+
+	private static int toFixedPoint(float value, float scale)
+	{
+		return (int) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value * scale)));
+	}
+
+	private static float fromFixedPoint(short value, float scale)
+	{
+		return value / scale;
+	}
+}
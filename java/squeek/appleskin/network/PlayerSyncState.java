@@ -0,0 +1,27 @@
+package squeek.appleskin.network;
+
+/**
+ * Values last sent to a single player, kept with primitive fields so that
+ * the per-tick comparison in {@link SyncHandler} does not allocate.
+ */
+public class PlayerSyncState
+{
+	/**
+	 * Shared marker for connections that can't receive sync packets.
+	 */
+	static final PlayerSyncState UNSUPPORTED = new PlayerSyncState();
+
+	boolean hasSynced = false;
+	boolean isIntegratedServerOwner = false;
+	boolean usesLegacyMessages = false;
+	float lastSaturationLevel;
+	int lastSaturationSyncTick;
+	float lastExhaustionLevel;
+	float lastExhaustionRate;
+	int lastExhaustionSyncTick;
+	float lastSeenExhaustionLevel;
+
+	int syncSlot;
+	int lastBudgetTick;
+	float budgetBytes;
+}
@@ -1,26 +1,42 @@
 package squeek.appleskin.network;
 
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.FoodStats;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.entity.living.LivingEvent.LivingUpdateEvent;
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.network.ConnectionData;
 import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkHooks;
 import net.minecraftforge.fml.network.NetworkRegistry;
 import net.minecraftforge.fml.network.simple.SimpleChannel;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import squeek.appleskin.ModConfig;
 import squeek.appleskin.ModInfo;
 import squeek.appleskin.helpers.HungerHelper;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public class SyncHandler
 {
-	private static final String PROTOCOL_VERSION = Integer.toString(1);
+	private static final String PROTOCOL_VERSION = Integer.toString(3);
+	// clients from before MessageFoodStatsSync, which only understand MessageExhaustionSync and MessageSaturationSync
+	private static final String LEGACY_PROTOCOL_VERSION = Integer.toString(1);
+	private static final ResourceLocation CHANNEL_NAME = new ResourceLocation(ModInfo.MODID, "sync");
+	// AppleSkin is optional on both ends, so any version may connect; what gets sent
+	// to each player depends on their version (see getRemoteProtocolVersion)
 	public static final SimpleChannel CHANNEL = NetworkRegistry.ChannelBuilder
-		.named(new ResourceLocation(ModInfo.MODID, "sync"))
+		.named(CHANNEL_NAME)
 		.clientAcceptedVersions(s -> true)
 		.serverAcceptedVersions(s -> true)
 		.networkProtocolVersion(() -> PROTOCOL_VERSION)
@@ -28,8 +44,10 @@ public class SyncHandler
 
 	public static void init()
 	{
+		// 1 and 2 are only sent to clients on the legacy protocol, and are kept registered so that clients can still read them from older servers
 		CHANNEL.registerMessage(1, MessageExhaustionSync.class, MessageExhaustionSync::encode, MessageExhaustionSync::decode, MessageExhaustionSync::handle);
 		CHANNEL.registerMessage(2, MessageSaturationSync.class, MessageSaturationSync::encode, MessageSaturationSync::decode, MessageSaturationSync::handle);
+		CHANNEL.registerMessage(3, MessageFoodStatsSync.class, MessageFoodStatsSync::encode, MessageFoodStatsSync::decode, MessageFoodStatsSync::handle);
 
 		MinecraftForge.EVENT_BUS.register(new SyncHandler());
 	}
@@ -37,43 +55,333 @@ public class SyncHandler
 	/*
 	 * Sync saturation (vanilla MC only syncs when it hits 0)
 	 * Sync exhaustion (vanilla MC does not sync it at all)
+	 *
+	 * Only holds entries for online players; entries are dropped whenever
+	 * the client recreates its player entity (login, respawn, dimension change)
 	 */
-	private static final Map<UUID, Float> lastSaturationLevels = new HashMap<>();
-	private static final Map<UUID, Float> lastExhaustionLevels = new HashMap<>();
+	private static final Map<UUID, PlayerSyncState> syncStates = new HashMap<>();
+
+	private static PlayerSyncState getSyncState(ServerPlayerEntity player)
+	{
+		PlayerSyncState state = syncStates.get(player.getUniqueID());
+		if (state == null)
+		{
+			// clients without AppleSkin (or with a protocol we can't send) all share one
+			// placeholder, so nothing is allocated or sent for their connection
+			String remoteVersion = getRemoteProtocolVersion(player);
+			if (remoteVersion == null)
+				state = PlayerSyncState.UNSUPPORTED;
+			else
+			{
+				state = new PlayerSyncState();
+				state.isIntegratedServerOwner = isIntegratedServerOwner(player);
+				state.usesLegacyMessages = remoteVersion.equals(LEGACY_PROTOCOL_VERSION);
+				SyncScheduler.assignSlot(state);
+			}
+			syncStates.put(player.getUniqueID(), state);
+		}
+		return state;
+	}
+
+	private static boolean isIntegratedServerOwner(ServerPlayerEntity player)
+	{
+		MinecraftServer server = player.getServer();
+		return server != null && !server.isDedicatedServer() && server.isServerOwner(player.getGameProfile());
+	}
+
+	private static boolean canReceiveSync(ServerPlayerEntity player)
+	{
+		return getRemoteProtocolVersion(player) != null;
+	}
+
+	/**
+	 * @return the version of the sync channel on the player's end, or null if it's absent or one we can't send
+	 */
+	private static String getRemoteProtocolVersion(ServerPlayerEntity player)
+	{
+		if (player.connection == null || !CHANNEL.isRemotePresent(player.connection.netManager))
+			return null;
+
+		// local connections don't go through the handshake, so there's no connection data, but both ends are this version
+		ConnectionData connectionData = NetworkHooks.getConnectionData(player.connection.netManager);
+		if (connectionData == null)
+			return PROTOCOL_VERSION;
+
+		String remoteVersion = connectionData.getChannels().get(CHANNEL_NAME);
+		if (PROTOCOL_VERSION.equals(remoteVersion) || LEGACY_PROTOCOL_VERSION.equals(remoteVersion))
+			return remoteVersion;
+		return null;
+	}
 
 	@SubscribeEvent
-	public void onLivingUpdateEvent(LivingUpdateEvent event)
+	public void onServerTick(TickEvent.ServerTickEvent event)
 	{
-		if (!(event.getEntity() instanceof ServerPlayerEntity))
+		if (event.phase != TickEvent.Phase.END)
 			return;
 
-		ServerPlayerEntity player = (ServerPlayerEntity) event.getEntity();
-		Float lastSaturationLevel = lastSaturationLevels.get(player.getUniqueID());
-		Float lastExhaustionLevel = lastExhaustionLevels.get(player.getUniqueID());
+		MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+		if (server == null)
+			return;
+
+		// one pass over the online players, so the cost doesn't scale with the number of loaded entities
+		int tick = server.getTickCounter();
+		int maxUpdatesPerSecond = ModConfig.MAX_SYNC_UPDATES_PER_SECOND.get();
+		int bytesPerSecondBudget = ModConfig.SYNC_BYTES_PER_SECOND_BUDGET.get();
+		boolean trackChanges = ModConfig.TRACK_FOOD_STATS_CHANGES.get();
+		List<ServerPlayerEntity> players = server.getPlayerList().getPlayers();
+		for (int i = 0; i < players.size(); ++i)
+			syncPlayer(players.get(i), tick, maxUpdatesPerSecond, bytesPerSecondBudget, trackChanges);
+	}
+
+	private void syncPlayer(ServerPlayerEntity player, int tick, int maxUpdatesPerSecond, int bytesPerSecondBudget, boolean trackChanges)
+	{
+		TrackingFoodStats trackingFoodStats = null;
+		if (trackChanges && player.getFoodStats() instanceof TrackingFoodStats)
+		{
+			trackingFoodStats = (TrackingFoodStats) player.getFoodStats();
+			if (!trackingFoodStats.isDirty())
+				return;
+		}
 
-		if (lastSaturationLevel == null || lastSaturationLevel != player.getFoodStats().getSaturationLevel())
+		PlayerSyncState state = getSyncState(player);
+		if (state == PlayerSyncState.UNSUPPORTED)
+			return;
+
+		if (state.isIntegratedServerOwner)
 		{
-			Object msg = new MessageSaturationSync(player.getFoodStats().getSaturationLevel());
-			CHANNEL.sendTo(msg, player.connection.netManager, NetworkDirection.PLAY_TO_CLIENT);
-			lastSaturationLevels.put(player.getUniqueID(), player.getFoodStats().getSaturationLevel());
+			publishLocalSnapshot(player, state);
+			if (trackingFoodStats != null)
+				trackingFoodStats.clearDirty();
+			return;
 		}
 
+		float saturationLevel = player.getFoodStats().getSaturationLevel();
 		float exhaustionLevel = HungerHelper.getExhaustion(player);
-		if (lastExhaustionLevel == null || Math.abs(lastExhaustionLevel - exhaustionLevel) >= 0.01f)
+		float maxExhaustion = HungerHelper.getMaxExhaustion(player);
+		MessageFoodStatsSync msg = getSyncMessage(state, tick, saturationLevel, exhaustionLevel, maxExhaustion, maxUpdatesPerSecond, bytesPerSecondBudget);
+		if (msg != null)
+		{
+			if (state.usesLegacyMessages)
+				sendLegacy(player, msg);
+			else
+				CHANNEL.sendTo(msg, player.connection.netManager, NetworkDirection.PLAY_TO_CLIENT);
+		}
+
+		if (trackingFoodStats != null && isFullySynced(state, saturationLevel, exhaustionLevel))
+			trackingFoodStats.clearDirty();
+	}
+
+	/**
+	 * Decides what needs to be sent to a player this tick, and if anything does, records it as sent.
+	 *
+	 * @return the message to send, or null if nothing needs to (or is allowed to) be sent this tick
+	 */
+	static MessageFoodStatsSync getSyncMessage(PlayerSyncState state, int tick, float saturationLevel, float exhaustionLevel, float maxExhaustion, int maxUpdatesPerSecond, int bytesPerSecondBudget)
+	{
+		// the initial sync is never delayed so that the HUD is correct right away
+		if (state.hasSynced && !SyncScheduler.isSyncTick(state, tick, maxUpdatesPerSecond))
+			return null;
+
+		int changedFields = getChangedFields(state, tick, saturationLevel, exhaustionLevel, maxExhaustion);
+
+		// legacy clients don't extrapolate, so they get every visible change instead
+		float exhaustionRate = state.hasSynced && !state.usesLegacyMessages ? estimateExhaustionRate(state, exhaustionLevel, maxExhaustion, tick - state.lastExhaustionSyncTick) : 0;
+		state.lastSeenExhaustionLevel = exhaustionLevel;
+
+		if (changedFields == 0)
+			return null;
+
+		MessageFoodStatsSync msg = new MessageFoodStatsSync(changedFields, saturationLevel, exhaustionLevel, exhaustionRate);
+		int packetSize = state.usesLegacyMessages ? getLegacyEncodedSize(msg) : msg.getEncodedSize() + SyncScheduler.PACKET_OVERHEAD_BYTES;
+		// over budget, the changes stay pending and are retried on the player's next sync tick
+		if (!SyncScheduler.tryConsumeBudget(state, tick, packetSize, bytesPerSecondBudget) && state.hasSynced)
+			return null;
+
+		onSent(state, msg, tick);
+		return msg;
+	}
+
+	/*
+	 * Clients on the legacy protocol get each changed field as its own packet, with the unquantized value
+	 */
+	private static void sendLegacy(ServerPlayerEntity player, MessageFoodStatsSync msg)
+	{
+		if ((msg.changedFields & MessageFoodStatsSync.SATURATION) != 0)
+			CHANNEL.sendTo(new MessageSaturationSync(msg.saturationLevel), player.connection.netManager, NetworkDirection.PLAY_TO_CLIENT);
+		if ((msg.changedFields & MessageFoodStatsSync.EXHAUSTION) != 0)
+			CHANNEL.sendTo(new MessageExhaustionSync(msg.exhaustionLevel), player.connection.netManager, NetworkDirection.PLAY_TO_CLIENT);
+	}
+
+	private static int getLegacyEncodedSize(MessageFoodStatsSync msg)
+	{
+		// a discriminator byte and a float per packet
+		int size = 0;
+		if ((msg.changedFields & MessageFoodStatsSync.SATURATION) != 0)
+			size += 5 + SyncScheduler.PACKET_OVERHEAD_BYTES;
+		if ((msg.changedFields & MessageFoodStatsSync.EXHAUSTION) != 0)
+			size += 5 + SyncScheduler.PACKET_OVERHEAD_BYTES;
+		return size;
+	}
+
+	private static void onSent(PlayerSyncState state, MessageFoodStatsSync msg, int tick)
+	{
+		if ((msg.changedFields & MessageFoodStatsSync.SATURATION) != 0)
+		{
+			state.lastSaturationLevel = MessageFoodStatsSync.quantize(msg.saturationLevel);
+			state.lastSaturationSyncTick = tick;
+		}
+		if ((msg.changedFields & MessageFoodStatsSync.EXHAUSTION) != 0)
 		{
-			Object msg = new MessageExhaustionSync(exhaustionLevel);
-			CHANNEL.sendTo(msg, player.connection.netManager, NetworkDirection.PLAY_TO_CLIENT);
-			lastExhaustionLevels.put(player.getUniqueID(), exhaustionLevel);
+			// remember the values as the client decoded them, so the server-side prediction matches the client's exactly
+			state.lastExhaustionLevel = MessageFoodStatsSync.quantize(msg.exhaustionLevel);
+			state.lastExhaustionRate = MessageFoodStatsSync.quantizeRate(msg.exhaustionRate);
+			state.lastExhaustionSyncTick = tick;
 		}
+		state.hasSynced = true;
+	}
+
+	/*
+	 * The host of an integrated server shares the JVM with the server, so the exact values
+	 * are handed over directly instead of going through the network channel
+	 */
+	private static void publishLocalSnapshot(ServerPlayerEntity player, PlayerSyncState state)
+	{
+		float saturationLevel = player.getFoodStats().getSaturationLevel();
+		float exhaustionLevel = HungerHelper.getExhaustion(player);
+		if (state.hasSynced && state.lastSaturationLevel == saturationLevel && state.lastExhaustionLevel == exhaustionLevel)
+			return;
+
+		LocalFoodStatsSnapshot.publish(saturationLevel, exhaustionLevel);
+		state.lastSaturationLevel = saturationLevel;
+		state.lastExhaustionLevel = exhaustionLevel;
+		state.hasSynced = true;
+	}
+
+	/**
+	 * While the client is extrapolating or an exact value is still pending, the player
+	 * needs to keep being checked even if their food stats don't change anymore.
+	 */
+	private static boolean isFullySynced(PlayerSyncState state, float saturationLevel, float exhaustionLevel)
+	{
+		return state.lastExhaustionRate == 0
+			&& state.lastSaturationLevel == MessageFoodStatsSync.quantize(saturationLevel)
+			&& state.lastExhaustionLevel == MessageFoodStatsSync.quantize(exhaustionLevel);
+	}
+
+	/*
+	 * Changes are only sent right away when they would be visible on the HUD (a pixel of
+	 * the exhaustion underlay, a quarter of a saturation icon). The exact values are sent
+	 * on a slow interval, for the F3 readout and the estimated health overlay.
+	 *
+	 * Exhaustion changes nearly every tick while moving, so instead of sending every change,
+	 * the client extrapolates it from the last synced value and rate (see ExhaustionPredictor).
+	 * The server runs the same prediction and sends a correction when it's visibly off, and
+	 * refreshes it regularly anyway, since the client's ticks don't line up with the server's.
+	 */
+	public static final int EXACT_SYNC_INTERVAL_TICKS = 100;
+
+	private static boolean needsSaturationSync(PlayerSyncState state, float saturationLevel, int ticksSinceSync)
+	{
+		if (HungerHelper.getSaturationDisplayStep(state.lastSaturationLevel) != HungerHelper.getSaturationDisplayStep(saturationLevel))
+			return true;
+
+		return ticksSinceSync >= EXACT_SYNC_INTERVAL_TICKS && state.lastSaturationLevel != MessageFoodStatsSync.quantize(saturationLevel);
+	}
+
+	private static boolean needsExhaustionCorrection(PlayerSyncState state, float exhaustionLevel, float maxExhaustion, int ticksSinceSync)
+	{
+		if (state.lastExhaustionRate > 0 && ticksSinceSync >= HungerHelper.EXHAUSTION_PREDICTION_REFRESH_TICKS)
+			return true;
+
+		float predicted = HungerHelper.getPredictedExhaustion(state.lastExhaustionLevel, state.lastExhaustionRate, ticksSinceSync, maxExhaustion);
+		if (Math.abs(predicted - exhaustionLevel) >= HungerHelper.getExhaustionDisplayStep(maxExhaustion))
+			return true;
+
+		return ticksSinceSync >= EXACT_SYNC_INTERVAL_TICKS && MessageFoodStatsSync.quantize(exhaustionLevel) != MessageFoodStatsSync.quantize(predicted);
+	}
+
+	private static float estimateExhaustionRate(PlayerSyncState state, float exhaustionLevel, float maxExhaustion, int ticksSinceSync)
+	{
+		// not changing since the last check means the player stopped doing anything exhausting
+		if (ticksSinceSync <= 0 || exhaustionLevel == state.lastSeenExhaustionLevel)
+			return 0;
+
+		float delta = exhaustionLevel - state.lastExhaustionLevel;
+		// exhaustion wrapped around max exhaustion since the last sync
+		if (delta < 0)
+			delta += maxExhaustion;
+
+		// faster than the packet can hold, exhaustion wraps around nearly every tick anyway,
+		// so it's not worth extrapolating and is corrected on every sync instead
+		float rate = delta / ticksSinceSync;
+		return rate > 0 && rate <= MessageFoodStatsSync.MAX_EXHAUSTION_RATE ? rate : 0;
+	}
+
+	@SubscribeEvent
+	public void onServerStopped(FMLServerStoppedEvent event)
+	{
+		syncStates.clear();
+		LocalFoodStatsSnapshot.clear();
 	}
 
 	@SubscribeEvent
 	public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event)
 	{
-		if (!(event.getPlayer() instanceof ServerPlayerEntity))
+		releaseSyncState(event.getPlayer());
+		installTrackingFoodStats(event.getPlayer());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event)
+	{
+		releaseSyncState(event.getPlayer());
+	}
+
+	@SubscribeEvent
+	public void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event)
+	{
+		releaseSyncState(event.getPlayer());
+		installTrackingFoodStats(event.getPlayer());
+	}
+
+	@SubscribeEvent
+	public void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event)
+	{
+		releaseSyncState(event.getPlayer());
+	}
+
+	private static void releaseSyncState(PlayerEntity player)
+	{
+		if (!(player instanceof ServerPlayerEntity))
+			return;
+
+		syncStates.remove(player.getUniqueID());
+
+		// the state is gone, so make sure the next sweep doesn't skip this player
+		if (player.getFoodStats() instanceof TrackingFoodStats)
+			((TrackingFoodStats) player.getFoodStats()).markDirty();
+	}
+
+	private static void installTrackingFoodStats(PlayerEntity player)
+	{
+		if (!(player instanceof ServerPlayerEntity))
+			return;
+
+		if (!ModConfig.TRACK_FOOD_STATS_CHANGES.get())
+			return;
+
+		if (!canReceiveSync((ServerPlayerEntity) player))
+			return;
+
+		// don't replace subclasses that other mods may have put in place
+		FoodStats foodStats = player.getFoodStats();
+		if (foodStats.getClass() != FoodStats.class)
 			return;
 
-		lastSaturationLevels.remove(event.getPlayer().getUniqueID());
-		lastExhaustionLevels.remove(event.getPlayer().getUniqueID());
+		CompoundNBT nbt = new CompoundNBT();
+		foodStats.write(nbt);
+		TrackingFoodStats trackingFoodStats = new TrackingFoodStats();
+		trackingFoodStats.read(nbt);
+		ObfuscationReflectionHelper.setPrivateValue(PlayerEntity.class, player, trackingFoodStats, "field_71100_bB");
 	}
 }
@@ -0,0 +1,62 @@
+package squeek.appleskin.network;
+
+/**
+ * Decides when a player is allowed to receive a sync packet.
+ *
+ * Each player is assigned a slot when their sync state is created, and only syncs on ticks
+ * that match that slot, so players are spread evenly across the update interval instead of
+ * all syncing on the same tick. On top of that, a per-player token bucket enforces a
+ * bytes-per-second budget. Values that change while a player is throttled are not lost,
+ * since the comparison is always made against the last values actually sent.
+ */
+public class SyncScheduler
+{
+	public static final int TICKS_PER_SECOND = 20;
+
+	// Approximate size of the custom payload framing around our message
+	// (packet id, channel name, payload length and message discriminator)
+	public static final int PACKET_OVERHEAD_BYTES = 20;
+
+	private static int nextSlot = 0;
+
+	static void assignSlot(PlayerSyncState state)
+	{
+		state.syncSlot = nextSlot;
+		nextSlot = (nextSlot + 1) & Integer.MAX_VALUE;
+	}
+
+	public static int getSyncInterval(int maxUpdatesPerSecond)
+	{
+		if (maxUpdatesPerSecond <= 0)
+			return TICKS_PER_SECOND;
+		return Math.max(1, (TICKS_PER_SECOND + maxUpdatesPerSecond - 1) / maxUpdatesPerSecond);
+	}
+
+	public static boolean isSyncTick(PlayerSyncState state, int tick, int maxUpdatesPerSecond)
+	{
+		int interval = getSyncInterval(maxUpdatesPerSecond);
+		return interval == 1 || ((tick + state.syncSlot) & Integer.MAX_VALUE) % interval == 0;
+	}
+
+	public static boolean tryConsumeBudget(PlayerSyncState state, int tick, int packetSize, int bytesPerSecond)
+	{
+		if (bytesPerSecond <= 0)
+			return true;
+
+		// allow at most one second worth of burst, but always enough for a single packet
+		// so that a tiny budget still lets updates through eventually
+		float capacity = Math.max(bytesPerSecond, packetSize);
+		int elapsedTicks = tick - state.lastBudgetTick;
+		if (elapsedTicks > 0)
+			state.budgetBytes = Math.min(capacity, state.budgetBytes + elapsedTicks * (bytesPerSecond / (float) TICKS_PER_SECOND));
+		else if (elapsedTicks < 0)
+			state.budgetBytes = capacity;
+		state.lastBudgetTick = tick;
+
+		if (state.budgetBytes < packetSize)
+			return false;
+
+		state.budgetBytes -= packetSize;
+		return true;
+	}
+}
@@ -0,0 +1,83 @@
+package squeek.appleskin.network;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.FoodStats;
+import squeek.appleskin.helpers.HungerHelper;
+
+/**
+ * A FoodStats that remembers whether any of its values have been changed since
+ * the last time {@link SyncHandler} looked at it, so that players whose food stats
+ * didn't change can be skipped entirely.
+ */
+public class TrackingFoodStats extends FoodStats
+{
+	// starts out dirty so that the initial sync always happens
+	private boolean dirty = true;
+
+	public boolean isDirty()
+	{
+		return dirty;
+	}
+
+	public void markDirty()
+	{
+		dirty = true;
+	}
+
+	void clearDirty()
+	{
+		dirty = false;
+	}
+
+	@Override
+	public void addStats(int foodLevelIn, float foodSaturationModifier)
+	{
+		super.addStats(foodLevelIn, foodSaturationModifier);
+		dirty = true;
+	}
+
+	@Override
+	public void consume(Item maybeFood, ItemStack stack)
+	{
+		super.consume(maybeFood, stack);
+		dirty = true;
+	}
+
+	@Override
+	public void tick(PlayerEntity player)
+	{
+		// tick() mutates the underlying fields directly, so compare the values before and after
+		int foodLevel = getFoodLevel();
+		float saturationLevel = getSaturationLevel();
+		float exhaustionLevel = HungerHelper.getExhaustion(this);
+
+		super.tick(player);
+
+		if (foodLevel != getFoodLevel() || saturationLevel != getSaturationLevel() || exhaustionLevel != HungerHelper.getExhaustion(this))
+			dirty = true;
+	}
+
+	@Override
+	public void read(CompoundNBT compound)
+	{
+		super.read(compound);
+		dirty = true;
+	}
+
+	@Override
+	public void addExhaustion(float exhaustion)
+	{
+		super.addExhaustion(exhaustion);
+		dirty = true;
+	}
+
+	@Override
+	public void setFoodLevel(int foodLevelIn)
+	{
+		super.setFoodLevel(foodLevelIn);
+		dirty = true;
+	}
+}
@@ -1,5 +1,9 @@
 package squeek.appleskin.util;
 
+/**
+ * @deprecated no longer used by AppleSkin, the HUD bar offsets are now stored in an {@link IntPointList}
+ */
+@Deprecated
 public class IntPoint
 {
 	public int x;
@@ -0,0 +1,43 @@
+package squeek.appleskin.util;
+
+import java.util.Arrays;
+
+/**
+ * A list of x/y pairs stored inline in a single int array, so reading and writing
+ * points needs neither a lock nor an object per point.
+ *
+ * The backing array only ever grows, so shrinking and then growing back doesn't reallocate.
+ */
+public class IntPointList
+{
+	private int[] points = new int[0];
+	private int size = 0;
+
+	public int size()
+	{
+		return size;
+	}
+
+	public void setSize(int size)
+	{
+		if (size * 2 > points.length)
+			points = Arrays.copyOf(points, Math.max(size * 2, points.length * 2));
+		this.size = size;
+	}
+
+	public int getX(int index)
+	{
+		return points[index * 2];
+	}
+
+	public int getY(int index)
+	{
+		return points[index * 2 + 1];
+	}
+
+	public void set(int index, int x, int y)
+	{
+		points[index * 2] = x;
+		points[index * 2 + 1] = y;
+	}
+}
@@ -0,0 +1,46 @@
+package squeek.appleskin.client;
+
+import org.openjdk.jmh.annotations.*;
+import squeek.appleskin.api.food.FoodValues;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodOverlayBenchmark
+{
+	// typical food, food with more than 10 icons and food with negative values
+	@Param({"8:0.8", "40:1.2", "-4:0.1"})
+	public String foodValues;
+
+	private FoodValues defaultFood;
+	private FoodValues modifiedFood;
+
+	@Setup
+	public void setup()
+	{
+		String[] parts = foodValues.split(":");
+		defaultFood = new FoodValues(Integer.parseInt(parts[0]), Float.parseFloat(parts[1]));
+		modifiedFood = new FoodValues(defaultFood.hunger + 1, defaultFood.saturationModifier);
+	}
+
+	// the font is approximated, to avoid having to bootstrap the game
+	private static final ToIntFunction<String> stringWidth = s -> s.length() * 6;
+
+	@Benchmark
+	public Object construct()
+	{
+		return new TooltipOverlayHandler.FoodOverlay(defaultFood, modifiedFood, false);
+	}
+
+	@Benchmark
+	public String constructAndGetTooltip()
+	{
+		return new TooltipOverlayHandler.FoodOverlay(defaultFood, modifiedFood, false).getTooltip(stringWidth);
+	}
+}
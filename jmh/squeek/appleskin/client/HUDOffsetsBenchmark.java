@@ -0,0 +1,50 @@
+package squeek.appleskin.client;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HUDOffsetsBenchmark
+{
+	@Param({"20", "200", "2000", "2000000"})
+	public float maxHealth;
+
+	@Param({"0", "20"})
+	public float absorptionAmount;
+
+	// low enough for the heartbeat animation, which needs random offsets
+	@Param({"4", "20"})
+	public float health;
+
+	private HUDOverlayHandler handler;
+	private int ticks;
+
+	@Setup
+	public void setup()
+	{
+		handler = new HUDOverlayHandler();
+		ticks = 0;
+	}
+
+	@Benchmark
+	public Object healthBarOffsets()
+	{
+		handler.updateHealthBars(maxHealth, absorptionAmount, health);
+		// the hearts an average food would restore
+		handler.generateHealthBarOffsets(++ticks, (int) health / 2, (int) health / 2 + 4);
+		return handler.healthBarOffsets;
+	}
+
+	@Benchmark
+	public Object hungerBarOffsets()
+	{
+		handler.generateHungerBarOffsets(++ticks, 10, 0f);
+		return handler.foodBarOffsets;
+	}
+}
@@ -0,0 +1,45 @@
+package squeek.appleskin.helpers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoodHelperBenchmark
+{
+	// the values are read from fields so that the JIT can't constant fold the estimate
+	public int foodLevel = 20;
+	public float fullSaturation = 20f;
+	public float partialSaturation = 5.5f;
+	public float tinySaturation = 1e-8f;
+	public float exhaustion = 3.99f;
+
+	@Benchmark
+	public float estimatedHealthIncrementFullSaturation()
+	{
+		return FoodHelper.getEstimatedHealthIncrement(foodLevel, fullSaturation, exhaustion);
+	}
+
+	@Benchmark
+	public float estimatedHealthIncrementPartialSaturation()
+	{
+		return FoodHelper.getEstimatedHealthIncrement(foodLevel, partialSaturation, exhaustion);
+	}
+
+	@Benchmark
+	public float estimatedHealthIncrementTinySaturation()
+	{
+		return FoodHelper.getEstimatedHealthIncrement(foodLevel, tinySaturation, exhaustion);
+	}
+
+	@Benchmark
+	public float estimatedHealthIncrementNoSaturation()
+	{
+		return FoodHelper.getEstimatedHealthIncrement(foodLevel, 0, exhaustion);
+	}
+}
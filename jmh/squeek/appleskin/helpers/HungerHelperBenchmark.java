@@ -0,0 +1,56 @@
+package squeek.appleskin.helpers;
+
+import net.minecraft.util.FoodStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HungerHelperBenchmark
+{
+	private FoodStats foodStats;
+
+	@Setup
+	public void setup()
+	{
+		foodStats = new FoodStats();
+		foodStats.addExhaustion(1.5f);
+	}
+
+	@Benchmark
+	public float getExhaustion()
+	{
+		return HungerHelper.getExhaustion(foodStats);
+	}
+
+	@Benchmark
+	public void setExhaustion()
+	{
+		HungerHelper.setExhaustion(foodStats, 1.5f);
+	}
+
+	// baselines: the plain reflective access HungerHelper used before, and a regular accessor
+
+	@Benchmark
+	public float getExhaustionReflective() throws IllegalAccessException
+	{
+		return HungerHelper.foodExhaustion.getFloat(foodStats);
+	}
+
+	@Benchmark
+	public void setExhaustionReflective() throws IllegalAccessException
+	{
+		HungerHelper.foodExhaustion.setFloat(foodStats, 1.5f);
+	}
+
+	@Benchmark
+	public float getSaturationLevel()
+	{
+		return foodStats.getSaturationLevel();
+	}
+}
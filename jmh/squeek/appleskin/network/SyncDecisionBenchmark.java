@@ -0,0 +1,74 @@
+package squeek.appleskin.network;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One server tick of the diff-and-send decision made in SyncHandler.syncPlayer (SyncHandler.getSyncMessage),
+ * for a number of simulated players whose food stats change like they would in game.
+ * Sending itself is left out, only the decision and the bookkeeping around it are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SyncDecisionBenchmark
+{
+	@Param({"1", "20", "100", "500"})
+	public int players;
+
+	@Param({"10", "20"})
+	public int maxUpdatesPerSecond;
+
+	@Param({"0", "200"})
+	public int bytesPerSecondBudget;
+
+	private static final float MAX_EXHAUSTION = 4.0f;
+
+	private PlayerSyncState[] states;
+	private float[] saturationLevels;
+	private float[] exhaustionLevels;
+	// exhaustion added per tick, a mix of idle, walking and sprinting players
+	private float[] exhaustionRates;
+	private int tick;
+
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(0);
+		states = new PlayerSyncState[players];
+		saturationLevels = new float[players];
+		exhaustionLevels = new float[players];
+		exhaustionRates = new float[players];
+		for (int i = 0; i < players; ++i)
+		{
+			states[i] = new PlayerSyncState();
+			SyncScheduler.assignSlot(states[i]);
+			saturationLevels[i] = random.nextFloat() * 20;
+			exhaustionLevels[i] = random.nextFloat() * MAX_EXHAUSTION;
+			exhaustionRates[i] = new float[]{0f, 0.01f, 0.03f}[random.nextInt(3)];
+		}
+		tick = 0;
+	}
+
+	@Benchmark
+	public void tick(Blackhole blackhole)
+	{
+		++tick;
+		for (int i = 0; i < players; ++i)
+		{
+			exhaustionLevels[i] += exhaustionRates[i];
+			if (exhaustionLevels[i] > MAX_EXHAUSTION)
+			{
+				exhaustionLevels[i] -= MAX_EXHAUSTION;
+				saturationLevels[i] = Math.max(0, saturationLevels[i] - 1);
+			}
+			blackhole.consume(SyncHandler.getSyncMessage(states[i], tick, saturationLevels[i], exhaustionLevels[i], MAX_EXHAUSTION, maxUpdatesPerSecond, bytesPerSecondBudget));
+		}
+	}
+}
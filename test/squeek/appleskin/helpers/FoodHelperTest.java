@@ -0,0 +1,143 @@
+package squeek.appleskin.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Property tests of the closed form FoodHelper.getEstimatedHealthIncrement against the
+ * step-by-step simulation it replaced (IterativeRegenEstimate).
+ *
+ * Domain: hunger 0-20, saturation 0-20 and exhaustion 0-40, which is everything FoodStats allows.
+ * - For saturation of 0 or at least 1e-8, both must agree within TOLERANCE
+ * - Below 1e-8, the simulation drifts (and below ~1e-15 it doesn't finish at all), so there
+ *   the estimate only has to stay between the estimate for no saturation and that plus one slow
+ *   regen step (the consumption taken by the saturation instead of hunger) plus one max exhaustion's
+ *   worth of fast regen (what the saturation regens before it's used up)
+ */
+public class FoodHelperTest
+{
+	// float accumulation error between the simulation's steps and the closed form's multiplication
+	private static final float TOLERANCE = 2e-3f;
+	private static final float MIN_COMPARED_SATURATION = 1e-8f;
+	private static final float MAX_TINY_SATURATION_INCREMENT = 1 + FoodHelper.MAX_EXHAUSTION / FoodHelper.REGEN_EXHAUSTION_INCREMENT;
+
+	private static final int SAMPLES = 200000;
+
+	private static final float[] EDGE_SATURATION = {
+		0, MIN_COMPARED_SATURATION, 1e-3f, 0.5f, 1, Math.nextDown(1f), Math.nextUp(1f), 2, 3.5f,
+		Math.nextDown(FoodHelper.REGEN_EXHAUSTION_INCREMENT), FoodHelper.REGEN_EXHAUSTION_INCREMENT, Math.nextUp(FoodHelper.REGEN_EXHAUSTION_INCREMENT),
+		6.5f, 10, 12.8f, 19.999f, 20
+	};
+	private static final float[] EDGE_EXHAUSTION = {
+		0, Float.MIN_VALUE, 1e-6f, 1, 2,
+		Math.nextDown(FoodHelper.MAX_EXHAUSTION), FoodHelper.MAX_EXHAUSTION, Math.nextUp(FoodHelper.MAX_EXHAUSTION),
+		5, 7.999f, 8, 8.5f, 12, 40
+	};
+
+	@Test
+	public void matchesIterativeVersionAtEdges()
+	{
+		for (int foodLevel = 0; foodLevel <= 20; foodLevel++)
+		{
+			for (float saturationLevel : EDGE_SATURATION)
+			{
+				for (float exhaustionLevel : EDGE_EXHAUSTION)
+					assertMatchesIterativeVersion(foodLevel, saturationLevel, exhaustionLevel);
+			}
+		}
+	}
+
+	@Test
+	public void matchesIterativeVersion()
+	{
+		Random random = new Random(0);
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			int foodLevel = random.nextInt(21);
+			// spread over orders of magnitude, since small saturation is where the two differ most
+			float saturationLevel = random.nextInt(10) == 0 ? 0 : logUniform(random, MIN_COMPARED_SATURATION, 20);
+			float exhaustionLevel = random.nextFloat() * (random.nextBoolean() ? 8 : 40);
+			assertMatchesIterativeVersion(foodLevel, saturationLevel, exhaustionLevel);
+		}
+	}
+
+	@Test
+	public void tinySaturationStaysInBounds()
+	{
+		Random random = new Random(0);
+		for (int i = 0; i < SAMPLES; i++)
+		{
+			int foodLevel = 17 + random.nextInt(4);
+			float saturationLevel = logUniform(random, Float.MIN_VALUE, MIN_COMPARED_SATURATION);
+			float exhaustionLevel = random.nextFloat() * 8;
+			assertTinySaturationInBounds(foodLevel, saturationLevel, exhaustionLevel);
+		}
+
+		// the smallest saturation that still gets fast regen, where the iteration count doesn't fit in a float
+		float saturationLevel = Float.MIN_NORMAL;
+		for (int i = 0; i < 10000; i++)
+		{
+			saturationLevel = Math.nextUp(saturationLevel);
+			for (float exhaustionLevel : EDGE_EXHAUSTION)
+				assertTinySaturationInBounds(20, saturationLevel, exhaustionLevel);
+		}
+	}
+
+	@Test
+	public void tinySaturationIsWithinASlowRegenStepOfIterativeVersion()
+	{
+		// where the simulation still finishes quickly, it's off by at most one slow regen step
+		Random random = new Random(0);
+		for (int i = 0; i < SAMPLES / 10; i++)
+		{
+			int foodLevel = random.nextInt(21);
+			float saturationLevel = logUniform(random, 1e-10f, MIN_COMPARED_SATURATION);
+			float exhaustionLevel = random.nextFloat() * 8;
+
+			float expected = IterativeRegenEstimate.getEstimatedHealthIncrement(foodLevel, saturationLevel, exhaustionLevel);
+			float actual = FoodHelper.getEstimatedHealthIncrement(foodLevel, saturationLevel, exhaustionLevel);
+			assertEquals(expected, actual, 1 + TOLERANCE, () -> describe(foodLevel, saturationLevel, exhaustionLevel));
+		}
+	}
+
+	@Test
+	public void nonFiniteInputsRegenNothing()
+	{
+		float[] nonFinite = {Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY};
+		for (float value : nonFinite)
+		{
+			assertEquals(0, FoodHelper.getEstimatedHealthIncrement(20, value, 0));
+			assertEquals(0, FoodHelper.getEstimatedHealthIncrement(20, 5, value));
+		}
+	}
+
+	private static void assertMatchesIterativeVersion(int foodLevel, float saturationLevel, float exhaustionLevel)
+	{
+		float expected = IterativeRegenEstimate.getEstimatedHealthIncrement(foodLevel, saturationLevel, exhaustionLevel);
+		float actual = FoodHelper.getEstimatedHealthIncrement(foodLevel, saturationLevel, exhaustionLevel);
+		assertEquals(expected, actual, TOLERANCE, () -> describe(foodLevel, saturationLevel, exhaustionLevel));
+	}
+
+	private static void assertTinySaturationInBounds(int foodLevel, float saturationLevel, float exhaustionLevel)
+	{
+		float withoutSaturation = FoodHelper.getEstimatedHealthIncrement(foodLevel, 0, exhaustionLevel);
+		float actual = FoodHelper.getEstimatedHealthIncrement(foodLevel, saturationLevel, exhaustionLevel);
+
+		assertTrue(Float.isFinite(actual), () -> describe(foodLevel, saturationLevel, exhaustionLevel));
+		assertTrue(actual >= withoutSaturation - TOLERANCE, () -> describe(foodLevel, saturationLevel, exhaustionLevel) + ": " + actual + " < " + withoutSaturation);
+		assertTrue(actual <= withoutSaturation + MAX_TINY_SATURATION_INCREMENT + TOLERANCE, () -> describe(foodLevel, saturationLevel, exhaustionLevel) + ": " + actual + " > " + withoutSaturation + " + " + MAX_TINY_SATURATION_INCREMENT);
+	}
+
+	private static float logUniform(Random random, float min, float max)
+	{
+		return (float) Math.exp(Math.log(min) + random.nextDouble() * (Math.log(max) - Math.log(min)));
+	}
+
+	private static String describe(int foodLevel, float saturationLevel, float exhaustionLevel)
+	{
+		return "foodLevel=" + foodLevel + ", saturationLevel=" + saturationLevel + ", exhaustionLevel=" + exhaustionLevel;
+	}
+}
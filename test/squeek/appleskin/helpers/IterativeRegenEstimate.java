@@ -0,0 +1,74 @@
+package squeek.appleskin.helpers;
+
+/**
+ * The step-by-step simulation that FoodHelper.getEstimatedHealthIncrement used before it was
+ * replaced by a closed form, kept as-is as the reference for FoodHelperTest.
+ *
+ * Doesn't finish (or takes very long) for saturation below ~1e-15, and drifts by up to a slow
+ * regen step for saturation below ~1e-8, so it's only compared against outside of that range.
+ */
+class IterativeRegenEstimate
+{
+	static float getEstimatedHealthIncrement(int foodLevel, float saturationLevel, float exhaustionLevel)
+	{
+		float health = 0;
+
+		if (!Float.isFinite(exhaustionLevel) || !Float.isFinite(saturationLevel))
+			return 0;
+
+		while (foodLevel >= 18)
+		{
+			while (exhaustionLevel > FoodHelper.MAX_EXHAUSTION)
+			{
+				exhaustionLevel -= FoodHelper.MAX_EXHAUSTION;
+				if (saturationLevel > 0)
+					saturationLevel = Math.max(saturationLevel - 1, 0);
+				else
+					foodLevel -= 1;
+			}
+			// Without this Float.compare, it's possible for this function to get stuck in an infinite loop
+			// if saturationLevel is small enough that exhaustionLevel does not actually change representation
+			// when it's incremented. This Float.compare makes it so we treat such close-to-zero values as zero.
+			if (foodLevel >= 20 && Float.compare(saturationLevel, Float.MIN_NORMAL) > 0)
+			{
+				// fast regen health
+				//
+				// Because only health and exhaustionLevel increase in this branch,
+				// we know that we will enter this branch again and again on each iteration
+				// if exhaustionLevel is not incremented above FoodHelper.MAX_EXHAUSTION before the
+				// next iteration.
+				//
+				// So, instead of actually performing those iterations, we can calculate
+				// the number of iterations it would take to reach max exhaustion, and
+				// add all the health/exhaustion in one go. In practice, this takes the
+				// worst-case number of iterations performed in this function from the millions
+				// all the way down to around 18.
+				//
+				// Note: Due to how floating point works, the results of actually doing the
+				// iterations and 'simulating' them using multiplication will differ. That is, small increments
+				// in a loop can end up with a different (and higher) final result than multiplication
+				// due to floating point rounding. In degenerate cases, the difference can be fairly high
+				// (when testing, I found a case that had a difference of ~0.3), but this isn't a concern in
+				// this particular instance because the 'real' difference as seen by the player
+				// would likely take hundreds of thousands of ticks to materialize (since the
+				// `limitedSaturationLevel / FoodHelper.REGEN_EXHAUSTION_INCREMENT` value must be very
+				// small for a difference to occur at all, and therefore numIterationsUntilAboveMax would
+				// be very large).
+				float limitedSaturationLevel = Math.min(saturationLevel, FoodHelper.REGEN_EXHAUSTION_INCREMENT);
+				float exhaustionUntilAboveMax = Math.nextUp(FoodHelper.MAX_EXHAUSTION) - exhaustionLevel;
+				int numIterationsUntilAboveMax = Math.max(1, (int) Math.ceil(exhaustionUntilAboveMax / limitedSaturationLevel));
+
+				health += (limitedSaturationLevel / FoodHelper.REGEN_EXHAUSTION_INCREMENT) * numIterationsUntilAboveMax;
+				exhaustionLevel += limitedSaturationLevel * numIterationsUntilAboveMax;
+			}
+			else if (foodLevel >= 18)
+			{
+				// slow regen health
+				health += 1;
+				exhaustionLevel += FoodHelper.REGEN_EXHAUSTION_INCREMENT;
+			}
+		}
+
+		return health;
+	}
+}